@@ -0,0 +1,72 @@
+package com.geotab.sdk;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs blocking Geotab API calls on virtual threads, at most {@code maxConcurrency} at a time. Waiting
+ * calls are admitted first come, first served, so no caller can starve the others.
+ *
+ * <p>The cap is what keeps a bulk job inside the Geotab rate limits: calls beyond it queue up
+ * instead of being rejected with an {@code OverLimitException}.
+ */
+public final class ApiExecutor implements Executor, AutoCloseable {
+
+  private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+  private final Semaphore permits;
+
+  public ApiExecutor(int maxConcurrency) {
+    this.permits = new Semaphore(Math.max(1, maxConcurrency), true);
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    threads.execute(() -> {
+      permits.acquireUninterruptibly();
+      try {
+        task.run();
+      } finally {
+        permits.release();
+      }
+    });
+  }
+
+  /**
+   * Run an API call.
+   *
+   * @param call The call.
+   * @return The call result; a failure completes it exceptionally with the thrown exception.
+   */
+  public <T> CompletableFuture<T> submit(Callable<T> call) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return call.call();
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        throw new CompletionException(e);
+      }
+    }, this);
+  }
+
+  /**
+   * Wait for calls to complete.
+   *
+   * @param calls The calls, as returned by {@link #submit(Callable)}.
+   * @return The results, in the order of {@code calls}.
+   */
+  public static <T> List<T> joinAll(List<CompletableFuture<T>> calls) {
+    return calls.stream().map(CompletableFuture::join).toList();
+  }
+
+  @Override
+  public void close() {
+    threads.shutdownNow();
+  }
+}
@@ -1,6 +1,7 @@
 package com.geotab.sdk;
 
 import com.geotab.sdk.datafeed.DataFeedApp;
+import com.geotab.sdk.datafeed.MultiDataFeedApp;
 import com.geotab.sdk.getcount.GetCountApp;
 import com.geotab.sdk.getlogs.GetLogsApp;
 import com.geotab.sdk.importdevices.ImportDevicesApp;
@@ -37,6 +38,7 @@ public class Main {
     APPS.put("maintenance", MaintenanceApp::main);
     APPS.put("sendTextMessage", SendTextMessageApp::main);
     APPS.put("dataFeed", DataFeedApp::main);
+    APPS.put("multiDataFeed", MultiDataFeedApp::main);
   }
 
   public static void main(String[] args) throws Exception {
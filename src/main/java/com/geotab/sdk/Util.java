@@ -20,6 +20,7 @@ public interface Util {
   class Cmd {
 
     private static final String SESSION_FILE = "session.local.properties";
+    private static final int DEFAULT_MAX_CONCURRENCY = 8;
 
     private final Class<?> type;
     private final Map<String, Arg> args = new LinkedHashMap<>();
@@ -146,6 +147,15 @@ public interface Util {
       return api;
     }
 
+    /**
+     * Create the executor for independent API calls. The number of calls in flight is capped by the
+     * {@code maxConcurrentCalls} system property (default {@value #DEFAULT_MAX_CONCURRENCY}); keep it low
+     * enough for the Geotab rate limits of the called methods.
+     */
+    public ApiExecutor newExecutor() {
+      return new ApiExecutor(Integer.getInteger("maxConcurrentCalls", DEFAULT_MAX_CONCURRENCY));
+    }
+
     private void setupSessionHook(GeotabApi api) {
       api.sessionChangeHook = session -> {
         System.out.println("New Session ID: " + session);
@@ -2,11 +2,24 @@ package com.geotab.sdk.datafeed;
 
 import static com.geotab.sdk.Util.Arg;
 import static com.geotab.sdk.Util.Cmd;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.EXCEPTION_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.FAULT_DATA_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.GPS_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.TRIP_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.statusDataFeed;
 
+import com.geotab.sdk.ApiExecutor;
+import com.geotab.sdk.datafeed.cache.CachePolicy;
+import com.geotab.sdk.datafeed.checkpoint.CheckpointStore;
+import com.geotab.sdk.datafeed.exporter.OutputFilePolicy;
 import com.geotab.sdk.datafeed.exporter.Exporter;
 import com.geotab.sdk.datafeed.loader.DataFeedParameters;
 import com.geotab.sdk.datafeed.worker.DataFeedWorker;
 import com.google.common.base.Objects;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,22 +35,66 @@ public class DataFeedApp {
       new Arg("faultToken",       false, "Last known fault data token"),
       new Arg("tripToken",        false, "Last known trip token"),
       new Arg("exceptionToken",   false, "Last known exception token"),
-      new Arg("exportType",       false, "Export type: console (default) or csv"),
-      new Arg("outputFolder",     false, "Output folder for CSV files (default: current directory)"),
-      new Arg("feedContinuously", false, "Run continuously: true or false (default: false)")
+      new Arg("exportType",       false, "Export type: console (default), csv or parquet; comma separated for several (ex. csv,parquet)"),
+      new Arg("outputFolder",     false, "Output folder for CSV and Parquet files (default: current directory)"),
+      new Arg("outputFiles",      false, "Output file rolling (ex. maxMb=256,rollEvery=PT15M,fsync=true,rowGroupMb=64) (default: maxMb=128,rollEvery=PT1H)"),
+      new Arg("feedContinuously", false, "Run continuously: true or false (default: false)"),
+      new Arg("feedMode",         false, "Feed mode: parallel (default) or batch (all feeds in one multi-call)"),
+      new Arg("checkpointFile",   false, "Token checkpoint journal to resume from and commit to (default: none)"),
+      new Arg("batchSize",        false, "Max records per feed page; bounds memory per batch (default: 50000)"),
+      new Arg("gpsBatchSize",     false, "Max GPS records per page (default: batchSize)"),
+      new Arg("statusBatchSize",  false, "Max status data records per page (default: batchSize)"),
+      new Arg("faultBatchSize",   false, "Max fault data records per page (default: batchSize)"),
+      new Arg("tripBatchSize",    false, "Max trips per page (default: batchSize)"),
+      new Arg("exceptionBatchSize", false, "Max exception events per page (default: batchSize)"),
+      new Arg("fromDate",         false, "UTC date to start feeds without a token from (ex. 2024-01-31T00:00:00Z)"),
+      new Arg("statusDiagnostics", false, "Comma separated diagnostic ids to load status data for (default: all)"),
+      new Arg("queueDepth",       false, "Loaded results buffered ahead of the exporter (default: 4)"),
+      new Arg("cacheFolder",      false, "Folder of entity cache snapshots for a warm start (default: none)"),
+      new Arg("deviceCache",      false, "Device cache policy (ex. maxMb=200,expireAfterWrite=PT12H) (default: unbounded)"),
+      new Arg("userCache",        false, "User cache policy, as deviceCache (default: unbounded)"),
+      new Arg("diagnosticCache",  false, "Diagnostic cache policy, as deviceCache (default: unbounded)")
     );
 
+    CheckpointStore checkpoints = cmd.get("checkpointFile") != null
+      ? new CheckpointStore(Paths.get(cmd.get("checkpointFile"))) : null;
+
+    // Explicit tokens win over checkpointed ones; otherwise resume from the checkpoint, or seek to
+    // fromDate, or start from 0.
     DataFeedParameters params = new DataFeedParameters();
-    params.lastGpsDataToken    = Optional.ofNullable(cmd.get("gpsToken")).orElse("0");
-    params.lastStatusDataToken = Optional.ofNullable(cmd.get("statusToken")).orElse("0");
-    params.lastFaultDataToken  = Optional.ofNullable(cmd.get("faultToken")).orElse("0");
-    params.lastTripToken       = Optional.ofNullable(cmd.get("tripToken")).orElse("0");
-    params.lastExceptionToken  = Optional.ofNullable(cmd.get("exceptionToken")).orElse("0");
+    params.fromDate            = Optional.ofNullable(cmd.get("fromDate")).map(Instant::parse).orElse(null);
+    String start               = params.fromDate != null ? null : "0";
+    params.lastGpsDataToken    = token(cmd.get("gpsToken"), checkpoints, GPS_FEED, start);
+    params.lastStatusDataToken = token(cmd.get("statusToken"), checkpoints, statusDataFeed(null), start);
+    params.lastFaultDataToken  = token(cmd.get("faultToken"), checkpoints, FAULT_DATA_FEED, start);
+    params.lastTripToken       = token(cmd.get("tripToken"), checkpoints, TRIP_FEED, start);
+    params.statusDataDiagnostics = Splitter.on(',').trimResults().omitEmptyStrings()
+      .splitToList(Strings.nullToEmpty(cmd.get("statusDiagnostics")));
+    for (String diagnosticId : params.statusDataDiagnostics) {
+      String token = token(null, checkpoints, statusDataFeed(diagnosticId), start);
+      if (token != null) params.lastDiagnosticStatusDataTokens.put(diagnosticId, token);
+    }
+    params.lastExceptionToken  = token(cmd.get("exceptionToken"), checkpoints, EXCEPTION_FEED, start);
+    params.batchFeeds          = "batch".equalsIgnoreCase(cmd.get("feedMode"));
+    params.feedResultsLimit    = Optional.ofNullable(cmd.get("batchSize")).map(Integer::parseInt).orElse(null);
+    params.gpsResultsLimit     = Optional.ofNullable(cmd.get("gpsBatchSize")).map(Integer::parseInt).orElse(null);
+    params.statusDataResultsLimit = Optional.ofNullable(cmd.get("statusBatchSize")).map(Integer::parseInt).orElse(null);
+    params.faultDataResultsLimit  = Optional.ofNullable(cmd.get("faultBatchSize")).map(Integer::parseInt).orElse(null);
+    params.tripResultsLimit    = Optional.ofNullable(cmd.get("tripBatchSize")).map(Integer::parseInt).orElse(null);
+    params.exceptionResultsLimit = Optional.ofNullable(cmd.get("exceptionBatchSize")).map(Integer::parseInt).orElse(null);
+    params.exportQueueDepth    = Optional.ofNullable(cmd.get("queueDepth")).map(Integer::parseInt).orElse(4);
+    params.cacheFolder         = Optional.ofNullable(cmd.get("cacheFolder")).map(Paths::get).orElse(null);
+    params.deviceCachePolicy   = CachePolicy.parse(cmd.get("deviceCache"));
+    params.userCachePolicy     = CachePolicy.parse(cmd.get("userCache"));
+    params.diagnosticCachePolicy = CachePolicy.parse(cmd.get("diagnosticCache"));
 
     boolean feedContinuously = "true".equalsIgnoreCase(cmd.get("feedContinuously"));
-    Exporter exporter = Exporter.create(cmd.get("exportType"), cmd.get("outputFolder"));
+    Exporter exporter = Exporter.create(cmd.get("exportType"), cmd.get("outputFolder"),
+      OutputFilePolicy.parse(cmd.get("outputFiles")));
 
-    DataFeedWorker worker = new DataFeedWorker(cmd.server, cmd.credentials, params, exporter);
+    ApiExecutor feedExecutor = cmd.newExecutor();
+    DataFeedWorker worker =
+      new DataFeedWorker(cmd.server, cmd.credentials, params, exporter, checkpoints, feedExecutor);
     addShutdownHook(worker);
     worker.start();
 
@@ -51,6 +108,13 @@ public class DataFeedApp {
     }
 
     worker.join();
+    feedExecutor.close();
+  }
+
+  private static String token(String explicit, CheckpointStore checkpoints, String feed, String start) {
+    return Optional.ofNullable(explicit)
+      .or(() -> checkpoints != null ? checkpoints.get(feed) : Optional.empty())
+      .orElse(start);
   }
 
   private static void addShutdownHook(DataFeedWorker worker) {
@@ -0,0 +1,182 @@
+package com.geotab.sdk.datafeed;
+
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.EXCEPTION_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.FAULT_DATA_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.GPS_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.TRIP_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.statusDataFeed;
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+import com.geotab.model.login.Credentials;
+import com.geotab.sdk.ApiExecutor;
+import com.geotab.sdk.datafeed.checkpoint.CheckpointStore;
+import com.geotab.sdk.datafeed.exporter.OutputFilePolicy;
+import com.geotab.sdk.datafeed.exporter.Exporter;
+import com.geotab.sdk.datafeed.loader.DataFeedParameters;
+import com.geotab.sdk.datafeed.worker.DataFeedWorker;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the data feed of many databases in one process. Every database gets its own worker, token
+ * checkpoints and caches, while all feed requests share one bounded pool of virtual threads that
+ * admits them first come, first served.
+ */
+public class MultiDataFeedApp {
+
+  private static final Logger log = LoggerFactory.getLogger(MultiDataFeedApp.class);
+
+  /** How long stopping waits for the workers to export and checkpoint what they already loaded. */
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+  /** Set by the shutdown hook; guarded by the worker list. */
+  private static boolean stopping;
+
+  public static void main(String[] args) throws Exception {
+    String databasesFile = System.getProperty("databasesFile");
+    if (isNullOrEmpty(databasesFile)) {
+      System.out.println("Missing parameter error: databasesFile");
+      System.out.println();
+      System.out.println("Usage: mvn exec:java -Dapp=multiDataFeed -DdatabasesFile=<file> [-DparamName=value…]");
+      System.out.println("Parameters:");
+      System.out.println("databasesFile (required): CSV file of <server>,<database>,<username>,<password>");
+      System.out.println("maxConcurrentCalls (optional): Feed requests in flight across all databases (default: 8)");
+      System.out.println("exportType (optional): Export type: console (default), csv or parquet; comma separated for several");
+      System.out.println("outputFolder (optional): Output folder; each database exports to its own sub folder");
+      System.out.println("outputFiles (optional): Output file rolling, ex. maxMb=256,rollEvery=PT15M,fsync=true,rowGroupMb=64");
+      System.out.println("checkpointFolder (optional): Folder of per database token checkpoint journals");
+      System.out.println("feedMode (optional): Feed mode: parallel (default) or batch");
+      System.out.println("cacheFolder (optional): Folder of per database entity cache snapshots");
+      System.exit(1);
+    }
+
+    String outputFolder = Optional.ofNullable(System.getProperty("outputFolder")).orElse(".");
+    String checkpointFolder = System.getProperty("checkpointFolder");
+    String cacheFolder = System.getProperty("cacheFolder");
+    int maxConcurrentCalls = Integer.getInteger("maxConcurrentCalls", 8);
+    OutputFilePolicy filePolicy = OutputFilePolicy.parse(System.getProperty("outputFiles"));
+
+    List<DataFeedWorker> workers = new ArrayList<>();
+    addShutdownHook(workers);
+    try (ApiExecutor apiExecutor = new ApiExecutor(maxConcurrentCalls)) {
+      try {
+        for (String[] database : loadDatabases(databasesFile)) {
+          String server = database[0];
+          Credentials credentials = Credentials.builder()
+            .database(database[1])
+            .userName(database[2])
+            .password(database[3])
+            .build();
+
+          // A database that can not be set up is skipped; the others run on
+          CheckpointStore checkpoints = null;
+          try {
+            if (checkpointFolder != null) {
+              checkpoints = new CheckpointStore(Paths.get(checkpointFolder, credentials.getDatabase() + ".checkpoint"));
+            }
+            DataFeedParameters params = new DataFeedParameters();
+            params.lastGpsDataToken    = token(checkpoints, GPS_FEED);
+            params.lastStatusDataToken = token(checkpoints, statusDataFeed(null));
+            params.lastFaultDataToken  = token(checkpoints, FAULT_DATA_FEED);
+            params.lastTripToken       = token(checkpoints, TRIP_FEED);
+            params.lastExceptionToken  = token(checkpoints, EXCEPTION_FEED);
+            params.batchFeeds          = "batch".equalsIgnoreCase(System.getProperty("feedMode"));
+            params.cacheFolder         =
+              cacheFolder != null ? Paths.get(cacheFolder, credentials.getDatabase()) : null;
+
+            Exporter exporter = Exporter.create(System.getProperty("exportType"),
+              outputFolder + File.separator + credentials.getDatabase(), filePolicy);
+
+            log.info("Starting data feed of {} on {}", credentials.getDatabase(), server);
+            DataFeedWorker worker =
+              new DataFeedWorker(server, credentials, params, exporter, checkpoints, apiExecutor);
+            synchronized (workers) {
+              if (stopping) break;
+              workers.add(worker);
+              worker.start();
+            }
+          } catch (Exception e) {
+            if (checkpoints != null) {
+              try {
+                checkpoints.close();
+              } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+              }
+            }
+            log.error("Can not start data feed of {} on {}; skipping it", credentials.getDatabase(), server, e);
+          }
+        }
+
+        for (DataFeedWorker worker : workers) {
+          worker.join();
+        }
+      } finally {
+        // Closing the executor under running workers would fail every call they make
+        stopWorkers(workers);
+      }
+    }
+  }
+
+  /**
+   * Stop every worker on exit. Registered before the first worker starts, and no worker starts
+   * once it ran.
+   */
+  private static void addShutdownHook(List<DataFeedWorker> workers) {
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      log.debug("Application is stopping…");
+      stopWorkers(workers);
+      log.debug("Application stopped");
+    }));
+  }
+
+  /**
+   * Signal every started worker first so they wind down together, then wait for each, all within
+   * {@link #SHUTDOWN_TIMEOUT}.
+   */
+  private static void stopWorkers(List<DataFeedWorker> workers) {
+    List<DataFeedWorker> started;
+    synchronized (workers) {
+      stopping = true;
+      started = List.copyOf(workers);
+    }
+    started.forEach(DataFeedWorker::shutdown);
+
+    long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+    try {
+      for (DataFeedWorker worker : started) {
+        if (!worker.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())))) {
+          log.warn("{} did not stop within {}", worker.getName(), SHUTDOWN_TIMEOUT);
+        }
+      }
+    } catch (InterruptedException e) {
+      log.error("Can not join workers");
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static List<String[]> loadDatabases(String filePath) throws Exception {
+    try (Stream<String> rows = Files.lines(Paths.get(filePath))) {
+      return rows.filter(row -> !row.isBlank() && !row.startsWith("#"))
+        .map(row -> Stream.of(row.split(",")).map(String::trim).toArray(String[]::new))
+        .filter(columns -> {
+          if (columns.length >= 4) return true;
+          log.warn("Ignoring database row with {} of 4 columns", columns.length);
+          return false;
+        })
+        .toList();
+    }
+  }
+
+  private static String token(CheckpointStore checkpoints, String feed) {
+    return checkpoints != null ? checkpoints.get(feed).orElse("0") : "0";
+  }
+}
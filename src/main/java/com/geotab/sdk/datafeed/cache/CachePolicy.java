@@ -0,0 +1,56 @@
+package com.geotab.sdk.datafeed.cache;
+
+import com.google.common.base.Splitter;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Size and freshness limits of a {@link GeotabEntityCache}; the defaults keep every entity found
+ * and look up ids that were not found again after 10 minutes.
+ */
+public class CachePolicy {
+
+  /** The most estimated bytes of entities kept, least recently used evicted first; 0 for no bound. */
+  public long maximumWeight;
+
+  /** Evict entities this long after they were loaded; null to keep them. */
+  public Duration expireAfterWrite;
+
+  /** Reload entities on access once they are this old; null to never reload on access. */
+  public Duration refreshAfterWrite;
+
+  /**
+   * How long the fake entity cached for an id Geotab did not know is served before it is looked up
+   * again, in the background.
+   */
+  public Duration negativeTtl = Duration.ofMinutes(10);
+
+  /** How long an id whose lookup failed is answered without calling Geotab again. */
+  public Duration errorTtl = Duration.ofSeconds(30);
+
+  /**
+   * Parse a policy such as {@code maxMb=200,expireAfterWrite=PT12H,refreshAfterWrite=PT1H}; durations
+   * are ISO-8601.
+   *
+   * @param spec The policy, or null for the default.
+   * @return The policy.
+   */
+  public static CachePolicy parse(String spec) {
+    var out = new CachePolicy();
+    if (spec == null || spec.isBlank()) return out;
+
+    Map<String, String> values = Splitter.on(',').trimResults().omitEmptyStrings()
+      .withKeyValueSeparator('=').split(spec);
+    values.forEach((key, value) -> {
+      switch (key) {
+        case "maxMb" -> out.maximumWeight = Long.parseLong(value) * 1024 * 1024;
+        case "expireAfterWrite" -> out.expireAfterWrite = Duration.parse(value);
+        case "refreshAfterWrite" -> out.refreshAfterWrite = Duration.parse(value);
+        case "negativeTtl" -> out.negativeTtl = Duration.parse(value);
+        case "errorTtl" -> out.errorTtl = Duration.parse(value);
+        default -> throw new IllegalArgumentException("Unknown cache policy setting " + key);
+      }
+    });
+    return out;
+  }
+}
@@ -6,8 +6,13 @@ import static com.geotab.util.Util.apply;
 import com.geotab.api.Api;
 import com.geotab.model.Id;
 import com.geotab.plain.objectmodel.Device;
+import com.geotab.plain.objectmodel.DeviceSearch;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,23 +25,51 @@ public final class DeviceCache extends GeotabEntityCache<Device> {
     super(api, null);
   }
 
+  public DeviceCache(Api api, CachePolicy policy) {
+    super(api, null, policy);
+  }
+
   @Override
   protected Logger getLog() {
     return log;
   }
 
+  @Override
+  protected int estimateSize(Device device) {
+    return 2_048 + (device.groups != null ? 64 * device.groups.size() : 0);
+  }
+
   @Override
   protected Optional<Device> fetchEntity(String id) {
     log.debug("Loading Device by id {} from Geotab…", id);
     return api.callGetById(DeviceEntity, id);
   }
 
+  @Override
+  protected Map<String, Device> fetchEntities(Collection<String> ids) {
+    log.debug("Loading {} Device by id from Geotab in one multi-call…", ids.size());
+    var call = api.buildMultiCall();
+    Map<String, Supplier<List<Device>>> results = new HashMap<>();
+    for (String id : ids) {
+      results.put(id, call.callGet(DeviceEntity, apply(new DeviceSearch(), s -> s.setId(id))));
+    }
+    call.execute();
+    return firstResults(results);
+  }
+
   @Override
   protected Optional<List<Device>> fetchAll() {
     log.debug("Loading all Device from Geotab…");
     return api.callGetAll(DeviceEntity);
   }
 
+  @Override
+  protected Optional<Delta<Device>> fetchChanges(String fromVersion) {
+    log.debug("Loading Device changes since version {} from Geotab…", fromVersion);
+    return api.callGetFeed(DeviceEntity, null, fromVersion, FEED_RESULTS_LIMIT)
+      .map(feed -> new Delta<>(feed.getData(), feed.getToVersion()));
+  }
+
   @Override
   protected Device createFakeCacheable(String id) {
     log.debug("No Device with id {} found in Geotab; creating a fake Device to cache it.", id);
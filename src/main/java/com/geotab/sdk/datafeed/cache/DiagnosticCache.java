@@ -6,13 +6,19 @@ import static com.geotab.util.Util.apply;
 import com.geotab.api.Api;
 import com.geotab.model.Id;
 import com.geotab.plain.objectmodel.engine.Diagnostic;
+import com.geotab.plain.objectmodel.engine.DiagnosticSearch;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * {@link Diagnostic} cache singleton. Reloads controllers periodically on demand and caches them.
+ * Diagnostics are cached with their controller and unit of measure already resolved.
  */
 public final class DiagnosticCache extends GeotabEntityCache<Diagnostic> {
 
@@ -22,7 +28,12 @@ public final class DiagnosticCache extends GeotabEntityCache<Diagnostic> {
 
   public DiagnosticCache(
       Api api, ControllerCache controllerCache, UnitOfMeasureCache unitOfMeasureCache) {
-    super(api, null);
+    this(api, controllerCache, unitOfMeasureCache, new CachePolicy());
+  }
+
+  public DiagnosticCache(Api api, ControllerCache controllerCache,
+      UnitOfMeasureCache unitOfMeasureCache, CachePolicy policy) {
+    super(api, null, policy);
     this.controllerCache = controllerCache;
     this.unitOfMeasureCache = unitOfMeasureCache;
   }
@@ -38,12 +49,31 @@ public final class DiagnosticCache extends GeotabEntityCache<Diagnostic> {
     return api.callGetById(DiagnosticEntity, id);
   }
 
+  @Override
+  protected Map<String, Diagnostic> fetchEntities(Collection<String> ids) {
+    log.debug("Loading {} Diagnostic by id from Geotab in one multi-call…", ids.size());
+    var call = api.buildMultiCall();
+    Map<String, Supplier<List<Diagnostic>>> results = new HashMap<>();
+    for (String id : ids) {
+      results.put(id, call.callGet(DiagnosticEntity, apply(new DiagnosticSearch(), s -> s.setId(id))));
+    }
+    call.execute();
+    return firstResults(results);
+  }
+
   @Override
   protected Optional<List<Diagnostic>> fetchAll() {
     log.debug("Loading all Diagnostic from Geotab…");
     return api.callGetAll(DiagnosticEntity);
   }
 
+  @Override
+  protected Optional<Delta<Diagnostic>> fetchChanges(String fromVersion) {
+    log.debug("Loading Diagnostic changes since version {} from Geotab…", fromVersion);
+    return api.callGetFeed(DiagnosticEntity, null, fromVersion, FEED_RESULTS_LIMIT)
+      .map(feed -> new Delta<>(feed.getData(), feed.getToVersion()));
+  }
+
   @Override
   protected Diagnostic createFakeCacheable(String id) {
     log.debug(
@@ -52,19 +82,16 @@ public final class DiagnosticCache extends GeotabEntityCache<Diagnostic> {
   }
 
   @Override
-  public Diagnostic get(String id) {
-    Diagnostic diagnostic = super.get(id);
-
-    if (diagnostic == null) {
-      return null;
-    }
-
+  protected Diagnostic resolve(Diagnostic diagnostic) {
+    // A failed or backed-off lookup returns null; the id reference is kept rather than lost
     if (diagnostic.controller != null && diagnostic.controller.getId() != null) {
-      diagnostic.controller = controllerCache.get(diagnostic.controller.getId().getId());
+      var controller = controllerCache.get(diagnostic.controller.getId().getId());
+      if (controller != null) diagnostic.controller = controller;
     }
 
     if (diagnostic.unitOfMeasure != null && diagnostic.unitOfMeasure.getId() != null) {
-      diagnostic.unitOfMeasure = unitOfMeasureCache.get(diagnostic.unitOfMeasure.getId().getId());
+      var unitOfMeasure = unitOfMeasureCache.get(diagnostic.unitOfMeasure.getId().getId());
+      if (unitOfMeasure != null) diagnostic.unitOfMeasure = unitOfMeasure;
     }
 
     return diagnostic;
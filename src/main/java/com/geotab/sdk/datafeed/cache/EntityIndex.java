@@ -0,0 +1,87 @@
+package com.geotab.sdk.datafeed.cache;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-optimized id to entity map for the enrichment hot path: open addressing with linear probing
+ * over one array of immutable entries. Reads take no lock and allocate nothing. Writes are
+ * serialized, only ever fill or replace slots, and grow the table by publishing a new one, so a
+ * reader always sees a consistent table; at worst it misses an entry added while it probed.
+ */
+final class EntityIndex<T> {
+
+  private static final int MIN_CAPACITY = 64;
+
+  private record Entry<T>(String id, int hash, T entity) {}
+
+  /** Power of two sized, at most half full, so every probe ends at an empty slot. */
+  private volatile AtomicReferenceArray<Entry<T>> table = new AtomicReferenceArray<>(MIN_CAPACITY);
+  private int size;
+
+  /**
+   * Get an entity.
+   *
+   * @param id The entity id.
+   * @return The entity, or null when it is not indexed.
+   */
+  T get(String id) {
+    AtomicReferenceArray<Entry<T>> slots = table;
+    int mask = slots.length() - 1;
+    int hash = spread(id.hashCode());
+    for (int i = hash & mask; ; i = (i + 1) & mask) {
+      Entry<T> entry = slots.getAcquire(i);
+      if (entry == null) return null;
+      if (entry.hash == hash && entry.id.equals(id)) return entry.entity;
+    }
+  }
+
+  synchronized void put(String id, T entity) {
+    if ((size + 1) * 2 > table.length()) {
+      table = copyOf(table, table.length() * 2);
+    }
+    if (insert(table, new Entry<>(id, spread(id.hashCode()), entity))) size++;
+  }
+
+  /** Replace the whole content. */
+  synchronized void replaceAll(Map<String, T> entities) {
+    int capacity = MIN_CAPACITY;
+    while (entities.size() * 2 > capacity) capacity <<= 1;
+
+    AtomicReferenceArray<Entry<T>> slots = new AtomicReferenceArray<>(capacity);
+    entities.forEach((id, entity) -> insert(slots, new Entry<>(id, spread(id.hashCode()), entity)));
+    table = slots;
+    size = entities.size();
+  }
+
+  synchronized void clear() {
+    table = new AtomicReferenceArray<>(MIN_CAPACITY);
+    size = 0;
+  }
+
+  private static <T> AtomicReferenceArray<Entry<T>> copyOf(AtomicReferenceArray<Entry<T>> slots, int capacity) {
+    AtomicReferenceArray<Entry<T>> out = new AtomicReferenceArray<>(capacity);
+    for (int i = 0; i < slots.length(); i++) {
+      Entry<T> entry = slots.getPlain(i);
+      if (entry != null) insert(out, entry);
+    }
+    return out;
+  }
+
+  /** Fill the entry's slot, or replace the entry of the same id; true when the id is new. */
+  private static <T> boolean insert(AtomicReferenceArray<Entry<T>> slots, Entry<T> entry) {
+    int mask = slots.length() - 1;
+    for (int i = entry.hash & mask; ; i = (i + 1) & mask) {
+      Entry<T> current = slots.getPlain(i);
+      if (current == null || current.hash == entry.hash && current.id.equals(entry.id)) {
+        slots.setRelease(i, entry);
+        return current == null;
+      }
+    }
+  }
+
+  /** Mix the high bits in, since short Geotab ids ({@code b12A}) differ mostly in the low ones. */
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -1,28 +1,194 @@
 package com.geotab.sdk.datafeed.cache;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+
 import com.geotab.api.Api;
 import com.geotab.model.entity.Entity;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.slf4j.Logger;
 
 /** Base {@link Entity} cache. */
 public abstract class GeotabEntityCache<T extends Entity> {
 
-  protected LoadingCache<String, T> cache;
+  /** Page size of {@link #fetchChanges(String)}; a full page means more changes are waiting. */
+  protected static final int FEED_RESULTS_LIMIT = 5_000;
+
+  /** Most ids resolved by one {@link #fetchEntities(Collection)} request. */
+  protected static final int FETCH_BATCH_SIZE = 500;
+
+  /** Snapshot file header: magic number, then format version. */
+  private static final long SNAPSHOT_MAGIC = 0x4754_4341_4348_4531L; // "GTCACHE1"
+  private static final int SNAPSHOT_VERSION = 1;
 
-  protected Api api;
+  /** Only SDK entities and the JDK types they are made of may be read back from a snapshot. */
+  private static final ObjectInputFilter SNAPSHOT_FILTER =
+    ObjectInputFilter.Config.createFilter("com.geotab.**;java.**;!*");
+
+  /** The published snapshot; {@link #reloadAll()} replaces it as a whole, readers never lock. */
+  protected volatile LoadingCache<String, T> cache;
+
+  /** Replaced by {@link SharedEntityCaches} when the loader it belonged to releases the cache. */
+  protected volatile Api api;
+
+  /**
+   * Runs background reloads, so they count against the loader's cap on concurrent API calls; until
+   * {@link #useExecutor} sets it, a reload runs on the thread that triggers it. Replaced like
+   * {@link #api}.
+   */
+  protected volatile Executor executor = MoreExecutors.directExecutor();
 
   protected T noEntity;
 
+  private final CachePolicy policy;
+
+  private final CacheLoader<String, T> loader = new CacheLoader<>() {
+    @Override
+    public T load(String id) {
+      return found(id, fetchEntity(id).orElse(null));
+    }
+
+    @Override
+    public Map<String, T> loadAll(Iterable<? extends String> ids) {
+      Map<String, T> out = new HashMap<>();
+      for (List<? extends String> batch : Iterables.partition(ids, FETCH_BATCH_SIZE)) {
+        Map<String, T> fetched = fetchEntities(List.copyOf(batch));
+        for (String id : batch) {
+          out.put(id, found(id, fetched.get(id)));
+        }
+      }
+      return out;
+    }
+
+    /** Reload in the background; readers keep the current value until the new one is in. */
+    @Override
+    public ListenableFuture<T> reload(String id, T oldValue) {
+      ListenableFutureTask<T> task = ListenableFutureTask.create(() -> load(id));
+      executor.execute(task);
+      return task;
+    }
+  };
+
+  /** When each cached fake entity (an id Geotab did not know) is due to be looked up again. */
+  private final Map<String, Long> negativeDeadlines = new ConcurrentHashMap<>();
+
+  /** Until when each id whose lookup failed is answered without calling Geotab again. */
+  private final Map<String, Long> errorDeadlines = new ConcurrentHashMap<>();
+
+  /**
+   * Lock-free front of {@link #cache} holding every real entity, so a hit skips the loading cache.
+   * Only used when the policy never evicts: the index keeps whatever it is given.
+   */
+  private final EntityIndex<T> index = new EntityIndex<>();
+  private final boolean indexed;
+  private final LongAdder indexHits = new LongAdder();
+
+  /** Statistics of the snapshots replaced so far, so {@link #stats()} spans reloads. */
+  private volatile CacheStats retiredStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+  /** Held while a snapshot file is written, so two saves never write the temporary file together. */
+  private final Object snapshotWrite = new Object();
+
+  /** When {@link #reloadAll()} last succeeded. */
+  private Instant reloadedAt = Instant.MIN;
+
+  /** The feed version {@link #refresh()} continues from; {@code null} until the first refresh. */
+  private String feedVersion;
+
   protected GeotabEntityCache(Api api, T noEntity) {
+    this(api, noEntity, new CachePolicy());
+  }
+
+  protected GeotabEntityCache(Api api, T noEntity, CachePolicy policy) {
     this.api = api;
     this.noEntity = noEntity;
-    this.cache = CacheBuilder.newBuilder()
-      .build(CacheLoader.from(k -> fetchEntity(k).orElseGet(() -> createFakeCacheable(k))));
+    this.policy = policy;
+    this.indexed = policy.maximumWeight <= 0 && policy.expireAfterWrite == null && policy.refreshAfterWrite == null;
+    this.cache = newCache();
+  }
+
+  private LoadingCache<String, T> newCache() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+    if (policy.expireAfterWrite != null) builder.expireAfterWrite(policy.expireAfterWrite);
+    if (policy.refreshAfterWrite != null) builder.refreshAfterWrite(policy.refreshAfterWrite);
+    if (policy.maximumWeight <= 0) return builder.build(loader);
+
+    return builder.maximumWeight(policy.maximumWeight)
+      .weigher((String id, T entity) -> estimateSize(entity))
+      .build(loader);
+  }
+
+  /** Publish a new snapshot, keeping the statistics of the one it replaces. */
+  private void publish(LoadingCache<String, T> snapshot) {
+    retiredStats = retiredStats.plus(cache.stats());
+    this.cache = snapshot;
+    negativeDeadlines.clear(); // snapshots hold real entities only
+    if (indexed) index.replaceAll(snapshot.asMap());
+  }
+
+  /** Add a real entity to the index. */
+  private T indexed(String id, T entity) {
+    if (indexed) index.put(id, entity);
+    return entity;
+  }
+
+  /** The entity to cache for a lookup: the one found, or a fake one that expires. */
+  private T found(String id, T entity) {
+    if (entity != null) {
+      negativeDeadlines.remove(id);
+      return indexed(id, resolve(entity));
+    }
+    negativeDeadlines.put(id, System.nanoTime() + policy.negativeTtl.toNanos());
+    return createFakeCacheable(id);
+  }
+
+  /**
+   * Start a single background lookup of a fake entity that outlived its TTL. Until it completes
+   * readers keep getting the fake; pushing the deadline out first keeps concurrent readers, and an
+   * outage, from starting more.
+   */
+  private void revalidate(String id) {
+    Long deadline = negativeDeadlines.get(id);
+    if (deadline == null || System.nanoTime() - deadline < 0) return;
+    if (negativeDeadlines.replace(id, deadline, System.nanoTime() + policy.errorTtl.toNanos())) {
+      cache.refresh(id);
+    }
   }
 
   /**
@@ -32,6 +198,29 @@ public abstract class GeotabEntityCache<T extends Entity> {
    */
   protected abstract Logger getLog();
 
+  /**
+   * Link an entity to the entities it references before it is cached. Cached entities are shared
+   * between threads and never modified once published, so readers get them fully linked with a
+   * single lookup.
+   *
+   * @param entity The entity, as loaded from Geotab.
+   * @return The entity to cache.
+   */
+  protected T resolve(T entity) {
+    return entity;
+  }
+
+  /**
+   * Estimate the heap size of an entity, to weigh it against {@link CachePolicy#maximumWeight}.
+   * Subclasses of large or variable sized entities refine the default.
+   *
+   * @param entity The entity.
+   * @return The estimated size in bytes.
+   */
+  protected int estimateSize(T entity) {
+    return 1_024;
+  }
+
   /**
    * Load entity by id from Geotab.
    *
@@ -40,6 +229,36 @@ public abstract class GeotabEntityCache<T extends Entity> {
    */
   protected abstract Optional<T> fetchEntity(String id);
 
+  /**
+   * Load entities by id from Geotab. Caches of entities that are often missed override this with a
+   * single request; the default fetches one id at a time.
+   *
+   * @param ids The entity ids.
+   * @return The entities found, by id.
+   */
+  protected Map<String, T> fetchEntities(Collection<String> ids) {
+    Map<String, T> out = new HashMap<>();
+    for (String id : ids) {
+      fetchEntity(id).ifPresent(entity -> out.put(id, entity));
+    }
+    return out;
+  }
+
+  /**
+   * Collect the results of a multi-call with one by-id search per entity.
+   *
+   * @param results The search results, by entity id.
+   * @return The entities found, by id.
+   */
+  protected static <E> Map<String, E> firstResults(Map<String, Supplier<List<E>>> results) {
+    Map<String, E> out = new HashMap<>();
+    results.forEach((id, result) -> {
+      List<E> entities = result.get();
+      if (entities != null && !entities.isEmpty()) out.put(id, entities.get(0));
+    });
+    return out;
+  }
+
   /**
    * Load all entities from Geotab.
    *
@@ -47,6 +266,17 @@ public abstract class GeotabEntityCache<T extends Entity> {
    */
   protected abstract Optional<List<T>> fetchAll();
 
+  /**
+   * Load the entities changed since a feed version from Geotab. Caches of entities without a
+   * {@code GetFeed} keep the default, which makes {@link #refresh()} a no-op.
+   *
+   * @param fromVersion The last feed version, or {@code null} to start from the beginning.
+   * @return One page of changed entities and the version to continue from.
+   */
+  protected Optional<Delta<T>> fetchChanges(String fromVersion) {
+    return Optional.empty();
+  }
+
   /**
    * In the extreme unlike scenario when the entity is not found in Geotab system by the id, then
    * create a fake entity of the required type.
@@ -63,10 +293,19 @@ public abstract class GeotabEntityCache<T extends Entity> {
    */
   protected boolean cacheNoEntity() {
     if (noEntity == null) return true;
-    cache.put(noEntity.getId().getId(), noEntity);
+    cache.put(noEntity.getId().getId(), indexed(noEntity.getId().getId(), noEntity));
     return true;
   }
 
+  /**
+   * Run the background reloads of this cache on an executor, typically the loader's API executor.
+   *
+   * @param executor The executor.
+   */
+  public void useExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
   /**
    * Get entity by id.
    *
@@ -78,17 +317,105 @@ public abstract class GeotabEntityCache<T extends Entity> {
       return noEntity;
     }
 
+    if (indexed) {
+      T hit = index.get(id);
+      if (hit != null) {
+        indexHits.increment();
+        return hit;
+      }
+    }
+
     getLog().debug("Get entity with id = {}", id);
 
+    if (backingOff(id)) return noEntity;
+
     try {
-      return cache.get(id);
+      T entity = cache.get(id);
+      revalidate(id);
+      return entity;
     } catch (Exception e) {
-      getLog().error("Can not load for id {}", id, e);
+      getLog().error("Can not load for id {}; retrying after {}", id, policy.errorTtl, e);
+      errorDeadlines.put(id, System.nanoTime() + policy.errorTtl.toNanos());
     }
 
     return noEntity;
   }
 
+  /**
+   * Get entities by id, resolving all cache misses together with one {@link
+   * #fetchEntities(Collection)} request per {@value #FETCH_BATCH_SIZE} ids.
+   *
+   * @param ids The entity ids; {@code null} and empty ids are ignored.
+   * @return The entities, by id.
+   */
+  public Map<String, T> getAll(Collection<String> ids) {
+    Map<String, T> out = new HashMap<>();
+    Set<String> keys = new LinkedHashSet<>();
+    for (String id : ids) {
+      if (id == null || id.isEmpty() || out.containsKey(id)) continue;
+      T hit = indexed ? index.get(id) : null;
+      if (hit != null) {
+        indexHits.increment();
+        out.put(id, hit);
+      } else if (backingOff(id)) {
+        out.put(id, noEntity);
+      } else {
+        keys.add(id);
+      }
+    }
+    if (keys.isEmpty()) return out;
+
+    getLog().debug("Get {} entities", keys.size());
+
+    try {
+      out.putAll(cache.getAll(keys));
+    } catch (Exception e) {
+      // No per-id retry: during an outage that would turn one failed request into one per id
+      getLog().error("Can not load {} ids; retrying after {}", keys.size(), policy.errorTtl, e);
+      long retryAt = System.nanoTime() + policy.errorTtl.toNanos();
+      for (String id : keys) {
+        T loaded = cache.getIfPresent(id);
+        if (loaded == null) errorDeadlines.put(id, retryAt);
+        out.put(id, loaded != null ? loaded : noEntity);
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Whether a failed lookup of an id is still backed off, as recorded in {@link #errorDeadlines}.
+   *
+   * @param id The entity id.
+   * @return {@code true} to answer the id with {@link #noEntity} without calling Geotab.
+   */
+  private boolean backingOff(String id) {
+    Long retryAt = errorDeadlines.get(id);
+    if (retryAt == null) return false;
+    if (System.nanoTime() - retryAt < 0) return true;
+    errorDeadlines.remove(id, retryAt);
+    return false;
+  }
+
+  /**
+   * Get the hit, miss, load time and eviction statistics of this cache since it was created. Does
+   * not wait for a reload in progress.
+   *
+   * @return The statistics.
+   */
+  public CacheStats stats() {
+    CacheStats stats = retiredStats.plus(cache.stats());
+    return stats.plus(new CacheStats(indexHits.sum(), 0, 0, 0, 0, 0));
+  }
+
+  /**
+   * Get the number of cached entities.
+   *
+   * @return The number of entities.
+   */
+  public long size() {
+    return cache.size();
+  }
+
   /**
    * Invalidate/flush all cached entities.
    *
@@ -100,6 +427,7 @@ public abstract class GeotabEntityCache<T extends Entity> {
 
       try {
         cache.invalidateAll();
+        index.clear();
       } catch (Exception e) {
         getLog().error(".flush() {}", cache, e);
         return false;
@@ -111,31 +439,210 @@ public abstract class GeotabEntityCache<T extends Entity> {
   }
 
   /**
-   * Invalidate cache and reload all entities from Geotab.
+   * Reload all entities from Geotab into a new snapshot and publish it in one swap. Readers keep
+   * using the previous snapshot until then, so they never see an empty cache; if the reload fails
+   * the previous snapshot stays in place.
    *
    * @return Whether the operation succeeded or not.
    */
   public synchronized boolean reloadAll() {
     getLog().debug("Reloading cache…");
 
-    boolean reloaded = flush();
-
+    LoadingCache<String, T> snapshot = newCache();
     try {
       Optional<List<T>> entities = fetchAll();
       if (entities.isPresent() && !entities.get().isEmpty()) {
         for (T entity : entities.get()) {
-          cache.put(entity.getId().getId(), entity);
+          snapshot.put(entity.getId().getId(), resolve(entity));
         }
       }
     } catch (Exception exception) {
       getLog().error("Failed to reload entities", exception);
-      reloaded = false;
+      getLog().debug("Cache was not reloaded");
+      return false;
+    }
+
+    if (noEntity != null) {
+      snapshot.put(noEntity.getId().getId(), noEntity);
     }
+    publish(snapshot);
+    reloadedAt = Instant.now();
 
-    reloaded = reloaded && cacheNoEntity();
+    getLog().debug("Cache was reloaded");
 
-    getLog().debug("Cache was{} reloaded", reloaded ? "" : " not");
+    return true;
+  }
+
+  /**
+   * Reload all entities unless that was done recently, e.g. by another loader sharing the cache.
+   *
+   * @param maxAge The age below which the cache is left as is.
+   * @return Whether the cache is fresh.
+   */
+  public synchronized boolean reloadAll(Duration maxAge) {
+    if (reloadedAt.isAfter(Instant.now().minus(maxAge))) {
+      getLog().debug("Cache was reloaded at {}; skipping", reloadedAt);
+      return true;
+    }
+    return reloadAll();
+  }
+
+  /**
+   * Apply the entities changed since the last refresh in place. The first refresh reads the whole
+   * feed and so doubles as the initial load; later ones only fetch what was added or modified, so
+   * cached entities stay current without ever being invalidated.
+   *
+   * @return Whether the operation succeeded or not.
+   */
+  public synchronized boolean refresh() {
+    getLog().debug("Refreshing cache from version {}…", feedVersion);
 
-    return reloaded;
+    int changed = 0;
+    try {
+      Optional<Delta<T>> delta;
+      do {
+        delta = fetchChanges(feedVersion);
+        if (delta.isEmpty()) break;
+        for (T entity : delta.get().entities()) {
+          String id = entity.getId().getId();
+          cache.put(id, indexed(id, resolve(entity)));
+          negativeDeadlines.remove(id);
+        }
+        changed += delta.get().entities().size();
+        feedVersion = delta.get().toVersion();
+      } while (delta.get().entities().size() >= FEED_RESULTS_LIMIT);
+    } catch (Exception exception) {
+      getLog().error("Failed to refresh entities", exception);
+      return false;
+    }
+
+    getLog().debug("Cache refreshed with {} changed entities, now at version {}", changed, feedVersion);
+    return cacheNoEntity();
+  }
+
+  /**
+   * A page of changed entities.
+   *
+   * @param entities The added or modified entities.
+   * @param toVersion The feed version to continue from.
+   */
+  protected record Delta<E>(List<E> entities, String toVersion) {}
+
+  /**
+   * Write all cached entities and the feed version to a gzip compressed snapshot file, through a
+   * temporary file and an atomic rename so a crash never leaves a torn snapshot behind.
+   *
+   * @param file The snapshot file.
+   * @return Whether the operation succeeded or not.
+   */
+  public boolean saveSnapshot(Path file) {
+    getLog().debug("Saving cache snapshot to {}…", file);
+
+    // Copied under the lock, written without it: a refresh never waits for the disk
+    String version;
+    List<T> entities = new ArrayList<>();
+    synchronized (this) {
+      version = feedVersion;
+      cache.asMap().forEach((id, entity) -> {
+        if (!negativeDeadlines.containsKey(id)) entities.add(entity);
+      });
+    }
+
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      synchronized (snapshotWrite) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+          DataOutputStream header = new DataOutputStream(out);
+          header.writeLong(SNAPSHOT_MAGIC);
+          header.writeInt(SNAPSHOT_VERSION);
+          header.flush();
+          try (ObjectOutputStream objects = new ObjectOutputStream(new GZIPOutputStream(out))) {
+            objects.writeObject(version);
+            objects.writeObject(entities);
+          }
+        }
+        Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+      }
+    } catch (Exception exception) {
+      getLog().warn("Failed to save cache snapshot to {}", file, exception);
+      return false;
+    }
+
+    getLog().debug("Cache snapshot saved");
+    return true;
+  }
+
+  /**
+   * Replace the cache content with a snapshot written by {@link #saveSnapshot(Path)}. The file is
+   * memory-mapped rather than read through the heap. Snapshots of another format version are
+   * ignored.
+   *
+   * @param file The snapshot file.
+   * @return Whether a snapshot was loaded.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized boolean loadSnapshot(Path file) {
+    if (!Files.exists(file)) return false;
+
+    getLog().debug("Loading cache snapshot from {}…", file);
+
+    LoadingCache<String, T> snapshot = newCache();
+    String version;
+    try (FileChannel channel = FileChannel.open(file, READ)) {
+      ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < Long.BYTES + Integer.BYTES
+        || buffer.getLong() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+        getLog().info("Ignoring cache snapshot {} of another format", file);
+        return false;
+      }
+      try (ObjectInputStream objects =
+             new ObjectInputStream(new GZIPInputStream(new ByteBufferInputStream(buffer)))) {
+        objects.setObjectInputFilter(SNAPSHOT_FILTER);
+        version = (String) objects.readObject();
+        for (T entity : (List<T>) objects.readObject()) {
+          snapshot.put(entity.getId().getId(), resolve(entity));
+        }
+      }
+    } catch (Exception exception) {
+      getLog().warn("Failed to load cache snapshot from {}", file, exception);
+      return false;
+    }
+
+    publish(snapshot);
+    feedVersion = version;
+    cacheNoEntity();
+
+    getLog().info("Cache loaded {} entities from snapshot {}", snapshot.size(), file);
+    return true;
+  }
+
+  /** Reads a (memory-mapped) buffer as a stream. */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) return 0;
+      if (!buffer.hasRemaining()) return -1;
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
   }
 }
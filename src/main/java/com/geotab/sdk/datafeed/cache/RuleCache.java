@@ -0,0 +1,45 @@
+package com.geotab.sdk.datafeed.cache;
+
+import static com.geotab.plain.Entities.RuleEntity;
+import static com.geotab.util.Util.apply;
+
+import com.geotab.api.Api;
+import com.geotab.model.Id;
+import com.geotab.plain.objectmodel.exceptions.Rule;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** {@link Rule} cache singleton. Reloads rules periodically on demand and caches them. */
+public final class RuleCache extends GeotabEntityCache<Rule> {
+
+  private static final Logger log = LoggerFactory.getLogger(RuleCache.class);
+
+  public RuleCache(Api api) {
+    super(api, null);
+  }
+
+  @Override
+  protected Logger getLog() {
+    return log;
+  }
+
+  @Override
+  protected Optional<Rule> fetchEntity(String id) {
+    log.debug("Loading Rule by id {} from Geotab…", id);
+    return api.callGetById(RuleEntity, id);
+  }
+
+  @Override
+  protected Optional<List<Rule>> fetchAll() {
+    log.debug("Loading all Rules from Geotab…");
+    return api.callGetAll(RuleEntity);
+  }
+
+  @Override
+  protected Rule createFakeCacheable(String id) {
+    log.debug("No Rule with id {} found in Geotab; creating a fake Rule to cache it.", id);
+    return apply(new Rule(), r -> r.setId(new Id(id)));
+  }
+}
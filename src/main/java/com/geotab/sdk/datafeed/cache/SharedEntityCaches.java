@@ -0,0 +1,87 @@
+package com.geotab.sdk.datafeed.cache;
+
+import com.geotab.api.Api;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches of system-wide entities (controllers, units of measure, failure modes), shared by the
+ * loaders of every database on the same server instead of each loader keeping and downloading its
+ * own copy. A shared cache is reference counted: it lives while any loader holds it, and calls
+ * Geotab through the API of one of its live holders.
+ */
+public final class SharedEntityCaches {
+
+  private static final Logger log = LoggerFactory.getLogger(SharedEntityCaches.class);
+
+  private record Key(String server, Class<?> type) {}
+
+  private record Holder(Api api, Executor executor) {}
+
+  private static final class Shared {
+
+    final GeotabEntityCache<?> cache;
+    final List<Holder> holders = new ArrayList<>();
+
+    Shared(GeotabEntityCache<?> cache) {
+      this.cache = cache;
+    }
+  }
+
+  private static final Map<Key, Shared> caches = new HashMap<>();
+
+  private SharedEntityCaches() {}
+
+  /**
+   * Get the shared cache of an entity type on a server, creating it on first use.
+   *
+   * @param server The server the databases are on.
+   * @param type The cache type.
+   * @param api The API of the acquiring loader; released with {@link #release}.
+   * @param executor The executor the acquiring loader runs API calls on, for background reloads.
+   * @param factory Creates the cache for the first holder.
+   * @return The shared cache.
+   */
+  public static synchronized <C extends GeotabEntityCache<?>> C acquire(
+    String server, Class<C> type, Api api, Executor executor, Function<Api, C> factory) {
+    Shared shared = caches.computeIfAbsent(new Key(server, type), key -> {
+      log.debug("Creating shared {} for {}", type.getSimpleName(), server);
+      C cache = factory.apply(api);
+      cache.useExecutor(executor);
+      return new Shared(cache);
+    });
+    shared.holders.add(new Holder(api, executor));
+    return type.cast(shared.cache);
+  }
+
+  /**
+   * Release a cache acquired with {@link #acquire}. The last release drops the cache; otherwise, if
+   * the cache was calling Geotab through the released API, it switches to another holder's API and
+   * executor.
+   *
+   * @param server The server the cache was acquired for.
+   * @param cache The cache.
+   * @param api The API it was acquired with.
+   */
+  public static synchronized void release(String server, GeotabEntityCache<?> cache, Api api) {
+    Key key = new Key(server, cache.getClass());
+    Shared shared = caches.get(key);
+    if (shared == null || shared.cache != cache) return;
+
+    shared.holders.removeIf(holder -> holder.api() == api);
+    if (shared.holders.isEmpty()) {
+      log.debug("Dropping shared {} for {}", key.type().getSimpleName(), server);
+      caches.remove(key);
+    } else if (cache.api == api) {
+      Holder next = shared.holders.getFirst();
+      cache.executor = next.executor();
+      cache.api = next.api();
+    }
+  }
+}
@@ -6,8 +6,13 @@ import static com.geotab.util.Util.apply;
 import com.geotab.api.Api;
 import com.geotab.model.Id;
 import com.geotab.plain.objectmodel.User;
+import com.geotab.plain.objectmodel.UserSearch;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,23 +25,53 @@ public final class UserCache extends GeotabEntityCache<User> {
     super(api, null);
   }
 
+  public UserCache(Api api, CachePolicy policy) {
+    super(api, null, policy);
+  }
+
   @Override
   protected Logger getLog() {
     return log;
   }
 
+  @Override
+  protected int estimateSize(User user) {
+    int groups = (user.companyGroups != null ? user.companyGroups.size() : 0)
+      + (user.securityGroups != null ? user.securityGroups.size() : 0);
+    return 3_072 + 64 * groups;
+  }
+
   @Override
   protected Optional<User> fetchEntity(String id) {
     log.debug("Loading User by id {} from Geotab…", id);
     return api.callGetById(UserEntity, id);
   }
 
+  @Override
+  protected Map<String, User> fetchEntities(Collection<String> ids) {
+    log.debug("Loading {} User by id from Geotab in one multi-call…", ids.size());
+    var call = api.buildMultiCall();
+    Map<String, Supplier<List<User>>> results = new HashMap<>();
+    for (String id : ids) {
+      results.put(id, call.callGet(UserEntity, apply(new UserSearch(), s -> s.setId(id))));
+    }
+    call.execute();
+    return firstResults(results);
+  }
+
   @Override
   protected Optional<List<User>> fetchAll() {
     log.debug("Loading all Users from Geotab…");
     return api.callGetAll(UserEntity);
   }
 
+  @Override
+  protected Optional<Delta<User>> fetchChanges(String fromVersion) {
+    log.debug("Loading User changes since version {} from Geotab…", fromVersion);
+    return api.callGetFeed(UserEntity, null, fromVersion, FEED_RESULTS_LIMIT)
+      .map(feed -> new Delta<>(feed.getData(), feed.getToVersion()));
+  }
+
   @Override
   protected User createFakeCacheable(String id) {
     log.debug("No User with id {} found in Geotab; creating a fake User to cache it.", id);
@@ -0,0 +1,159 @@
+package com.geotab.sdk.datafeed.checkpoint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.geotab.sdk.datafeed.loader.DataFeedResult;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durable feed token store. Every commit appends {@code feed\ttoken\tcrc} lines to a journal and
+ * fsyncs it; a torn or corrupt trailing line (crash mid-write) fails its checksum and is ignored on
+ * load, so the store always resumes from the last fully committed token. The journal is compacted
+ * down to one line per feed every {@value #COMPACT_AFTER} appends through an atomic file swap.
+ *
+ * <p>Tokens are committed only after the exporter confirmed a batch, giving at-least-once delivery.
+ */
+public final class CheckpointStore implements Closeable {
+
+  private static final int COMPACT_AFTER = 1_000;
+  private static final Logger log = LoggerFactory.getLogger(CheckpointStore.class);
+
+  private final Path journal;
+  private final Map<String, String> tokens = new LinkedHashMap<>();
+  private FileChannel channel;
+  private int appended;
+
+  public CheckpointStore(Path journal) throws IOException {
+    this.journal = journal.toAbsolutePath();
+    Files.createDirectories(this.journal.getParent());
+    if (Files.exists(this.journal)) {
+      load();
+    }
+    compact(); // drop any torn tail before appending to it
+    log.info("Checkpoints loaded from {}: {}", this.journal, tokens);
+  }
+
+  /**
+   * Get the last committed token of a feed.
+   *
+   * @param feed The feed name, as in {@link DataFeedResult#tokens}.
+   * @return The token, if one was committed.
+   */
+  public synchronized Optional<String> get(String feed) {
+    return Optional.ofNullable(tokens.get(feed));
+  }
+
+  /**
+   * Durably commit the tokens of an exported result. Feeds without a token in the result are left
+   * untouched.
+   *
+   * @param result The exported result.
+   * @throws IOException If the journal can not be written.
+   */
+  public void commit(DataFeedResult result) throws IOException {
+    commit(result.tokens);
+  }
+
+  /**
+   * Durably commit feed tokens in a single journal write.
+   *
+   * @param feedTokens The tokens by feed name.
+   * @throws IOException If the journal can not be written.
+   */
+  public synchronized void commit(Map<String, String> feedTokens) throws IOException {
+    if (feedTokens.isEmpty()) return;
+
+    var sb = new StringBuilder();
+    feedTokens.forEach((feed, token) -> sb.append(line(feed, token)));
+    write(channel, sb.toString());
+    channel.force(false);
+    tokens.putAll(feedTokens);
+
+    appended += feedTokens.size();
+    if (appended >= COMPACT_AFTER) {
+      compact();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null) {
+      channel.force(true);
+      channel.close();
+      channel = null;
+    }
+  }
+
+  private void load() throws IOException {
+    for (String row : Files.readAllLines(journal, UTF_8)) {
+      String[] columns = row.split("\t");
+      if (columns.length != 3 || !checksum(columns[0], columns[1]).equals(columns[2])) {
+        log.warn("Ignoring corrupt checkpoint line '{}'", row);
+        continue;
+      }
+      tokens.put(columns[0], columns[1]);
+    }
+  }
+
+  /** Rewrite the journal as one line per feed, then atomically swap it in place. */
+  private void compact() throws IOException {
+    if (channel != null) channel.close();
+
+    Path tmp = journal.resolveSibling(journal.getFileName() + ".tmp");
+    try (FileChannel out = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      var sb = new StringBuilder();
+      tokens.forEach((feed, token) -> sb.append(line(feed, token)));
+      write(out, sb.toString());
+      out.force(true);
+    }
+    Files.move(tmp, journal, ATOMIC_MOVE, REPLACE_EXISTING);
+    syncDirectory();
+
+    channel = FileChannel.open(journal, CREATE, WRITE, APPEND);
+    appended = 0;
+  }
+
+  private void syncDirectory() {
+    try (FileChannel dir = FileChannel.open(journal.getParent(), READ)) {
+      dir.force(true);
+    } catch (IOException e) {
+      // Not supported on every platform (e.g. Windows); the rename itself is still atomic.
+      log.debug("Can not fsync directory {}", journal.getParent(), e);
+    }
+  }
+
+  private static void write(FileChannel channel, String content) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(UTF_8));
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static String line(String feed, String token) {
+    return feed + "\t" + token + "\t" + checksum(feed, token) + "\n";
+  }
+
+  private static String checksum(String feed, String token) {
+    CRC32 crc = new CRC32();
+    crc.update((feed + "\t" + token).getBytes(UTF_8));
+    return Long.toHexString(crc.getValue());
+  }
+}
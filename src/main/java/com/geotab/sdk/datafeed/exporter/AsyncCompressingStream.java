@@ -0,0 +1,121 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compresses on a thread of its own: written bytes are collected in blocks, and each full block is
+ * handed to the compressor thread while the writer fills the next one; with three blocks waiting,
+ * the writer waits. {@link #flush} returns once everything written is compressed and flushed
+ * downstream.
+ */
+final class AsyncCompressingStream extends OutputStream {
+
+  private static final int BLOCK_SIZE = 256 * 1024;
+  private static final int BLOCKS = 4;
+
+  private final OutputStream compressed;
+  private final ExecutorService compressor;
+  /** Blocks not being filled or compressed; bounds the memory of a writer running ahead. */
+  private final BlockingQueue<byte[]> freeBlocks = new ArrayBlockingQueue<>(BLOCKS);
+  private byte[] block;
+  private int length;
+  private volatile IOException failure;
+
+  /**
+   * @param compressed The compressing stream, written and closed on the compressor thread only.
+   * @param name The compressor thread name.
+   */
+  AsyncCompressingStream(OutputStream compressed, String name) {
+    this.compressed = compressed;
+    this.compressor = Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder().setNameFormat(name).setDaemon(true).build());
+    for (int i = 1; i < BLOCKS; i++) freeBlocks.add(new byte[BLOCK_SIZE]);
+    this.block = new byte[BLOCK_SIZE];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (length == block.length) handOff();
+    block[length++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int count) throws IOException {
+    while (count > 0) {
+      if (length == block.length) handOff();
+      int n = Math.min(count, block.length - length);
+      System.arraycopy(bytes, offset, block, length, n);
+      length += n;
+      offset += n;
+      count -= n;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    handOff();
+    await(compressor.submit(() -> {
+      compressed.flush();
+      return null;
+    }));
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      handOff();
+      await(compressor.submit(() -> {
+        compressed.close();
+        return null;
+      }));
+    } finally {
+      compressor.shutdown();
+    }
+  }
+
+  private void handOff() throws IOException {
+    if (failure != null) throw failure;
+    if (length == 0) return;
+
+    byte[] full = block;
+    int count = length;
+    try {
+      block = freeBlocks.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for the compressor");
+    }
+    length = 0;
+
+    compressor.execute(() -> {
+      try {
+        if (failure == null) compressed.write(full, 0, count);
+      } catch (IOException e) {
+        failure = e;
+      } finally {
+        freeBlocks.add(full);
+      }
+    });
+  }
+
+  private void await(Future<?> task) throws IOException {
+    try {
+      task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for the compressor");
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+    if (failure != null) throw failure;
+  }
+}
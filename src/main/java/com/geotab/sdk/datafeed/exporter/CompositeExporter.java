@@ -0,0 +1,230 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import com.geotab.sdk.datafeed.loader.DataFeedResult;
+import com.geotab.sdk.datafeed.loader.Enrichment;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fans every result out to several exporters, each exporting on a thread of its own from a bounded
+ * queue, so a slow sink falls behind on its own while the others keep up. A sink that fails retries
+ * the same result without holding back the others. A result counts as exported, and is
+ * checkpointed, only once every sink has exported it. When the slowest sink's queue is full,
+ * {@link #exportAsync} waits for it, so memory stays bounded and the loader slows to that sink's
+ * pace. Sinks share the results and must not modify them.
+ */
+public class CompositeExporter implements Exporter {
+
+  /** How many results a sink may fall behind the fastest one before exporting waits for it. */
+  public static final int DEFAULT_QUEUE_DEPTH = 16;
+
+  private static final Logger log = LoggerFactory.getLogger(CompositeExporter.class);
+  private static final int EXPORT_RETRY_SECONDS = 10;
+  private static final Duration LAG_LOG_INTERVAL = Duration.ofMinutes(1);
+
+  private final List<Sink> sinks = new ArrayList<>();
+  private Instant lagLoggedAt = Instant.now();
+
+  public CompositeExporter(List<Exporter> exporters) {
+    this(exporters, DEFAULT_QUEUE_DEPTH);
+  }
+
+  public CompositeExporter(List<Exporter> exporters, int queueDepth) {
+    for (Exporter exporter : exporters) {
+      sinks.add(new Sink(exporter, sinks.size(), Math.max(1, queueDepth)));
+    }
+    sinks.forEach(sink -> sink.thread.start());
+  }
+
+  @Override
+  public void export(DataFeedResult dataFeedResult) throws Exception {
+    exportAsync(dataFeedResult).get();
+  }
+
+  /**
+   * Queue a result for every sink; waits only while a sink's queue is full.
+   *
+   * @return Completes once every sink exported the result; fails if a sink gave up on it.
+   */
+  @Override
+  public CompletableFuture<Void> exportAsync(DataFeedResult dataFeedResult) throws InterruptedException {
+    List<CompletableFuture<Void>> exported = new ArrayList<>(sinks.size());
+    for (Sink sink : sinks) {
+      exported.add(sink.offer(dataFeedResult));
+    }
+    logLag(false);
+    return CompletableFuture.allOf(exported.toArray(CompletableFuture[]::new));
+  }
+
+  /** The references any of the sinks reads. */
+  @Override
+  public Set<Enrichment> requires() {
+    Set<Enrichment> out = EnumSet.noneOf(Enrichment.class);
+    sinks.forEach(sink -> out.addAll(sink.exporter.requires()));
+    return out;
+  }
+
+  /**
+   * Let every sink export what it has queued, then close the sinks. A sink still failing stops
+   * retrying; its results are not checkpointed and are loaded again on restart.
+   */
+  @Override
+  public void close() throws Exception {
+    for (Sink sink : sinks) {
+      sink.finish();
+    }
+    for (Sink sink : sinks) {
+      sink.thread.join();
+    }
+    logLag(true);
+
+    Exception failure = null;
+    for (Sink sink : sinks) {
+      try {
+        sink.exporter.close();
+      } catch (Exception e) {
+        if (failure == null) failure = e;
+        else failure.addSuppressed(e);
+      }
+    }
+    if (failure != null) throw failure;
+  }
+
+  private void logLag(boolean summary) {
+    if (!summary && (!log.isDebugEnabled() || Instant.now().isBefore(lagLoggedAt.plus(LAG_LOG_INTERVAL)))) return;
+    lagLoggedAt = Instant.now();
+
+    for (Sink sink : sinks) {
+      String message = "{}: {} results queued, lag {} ms, {} results of {} records exported, {} failures";
+      Object[] args = { sink.thread.getName(), sink.queue.size(), sink.lag().toMillis(), sink.exportedResults.sum(),
+        sink.exportedRecords.sum(), sink.failures.sum() };
+      if (summary) {
+        log.info(message, args);
+      } else {
+        log.debug(message, args);
+      }
+    }
+  }
+
+  private static int size(DataFeedResult result) {
+    return result.gpsRecords.size() + result.statusData.size() + result.faultData.size() + result.trips.size()
+      + result.exceptionEvents.size();
+  }
+
+  /** One exporter, its queue and the thread exporting from it. */
+  private static final class Sink {
+
+    private record Pending(DataFeedResult result, Instant queuedAt, CompletableFuture<Void> exported) {}
+
+    private static final Pending END = new Pending(null, null, null);
+
+    final Exporter exporter;
+    final BlockingQueue<Pending> queue;
+    final Thread thread;
+    final LongAdder exportedResults = new LongAdder();
+    final LongAdder exportedRecords = new LongAdder();
+    final LongAdder failures = new LongAdder();
+    /** Counted down on close, ending the wait between retries of a failing export. */
+    private final CountDownLatch finishing = new CountDownLatch(1);
+    private volatile Pending exporting;
+
+    Sink(Exporter exporter, int index, int queueDepth) {
+      this.exporter = exporter;
+      this.queue = new ArrayBlockingQueue<>(queueDepth);
+      this.thread = new Thread(this::run, "exporter-%d-%s".formatted(index, exporter.getClass().getSimpleName()));
+      this.thread.setDaemon(true);
+    }
+
+    CompletableFuture<Void> offer(DataFeedResult result) throws InterruptedException {
+      var pending = new Pending(result, Instant.now(), new CompletableFuture<>());
+      queue.put(pending);
+      return pending.exported;
+    }
+
+    /**
+     * Stop once the queued results are exported, without retrying failures any more. The thread is
+     * not interrupted, since that would close the channels an exporter is writing to.
+     */
+    void finish() throws InterruptedException {
+      finishing.countDown();
+      queue.put(END);
+    }
+
+    /** How long the oldest result this sink has not exported yet has waited. */
+    Duration lag() {
+      Pending oldest = exporting != null ? exporting : queue.peek();
+      return oldest == null || oldest == END ? Duration.ZERO : Duration.between(oldest.queuedAt, Instant.now());
+    }
+
+    private void run() {
+      while (true) {
+        Pending pending;
+        try {
+          pending = queue.take();
+        } catch (InterruptedException e) {
+          log.warn("{} interrupted; {} queued results not exported", thread.getName(), queue.size());
+          return;
+        }
+        if (pending == END) return;
+
+        exporting = pending;
+        export(pending);
+        exporting = null;
+      }
+    }
+
+    private void export(Pending pending) {
+      while (true) {
+        try {
+          // The sink's own background completion, e.g. a Parquet file closing, completes the result;
+          // until then the callback keeps only the record count, not the records
+          int records = size(pending.result);
+          CompletableFuture<Void> exported = pending.exported;
+          exporter.exportAsync(pending.result).whenComplete((ignored, failure) -> {
+            if (failure != null) {
+              failures.increment();
+              log.error("{} can not export data feed", thread.getName(), failure);
+              exported.completeExceptionally(failure);
+            } else {
+              exportedResults.increment();
+              exportedRecords.add(records);
+              exported.complete(null);
+            }
+          });
+          return;
+        } catch (Exception exception) {
+          failures.increment();
+          if (finishing.getCount() == 0) {
+            log.error("{} can not export data feed; not checkpointed, it will be reloaded on restart",
+              thread.getName(), exception);
+            pending.exported.completeExceptionally(exception);
+            return;
+          }
+          log.error("{} can not export data feed; retrying in {} seconds…", thread.getName(), EXPORT_RETRY_SECONDS,
+            exception);
+          try {
+            // Closing ends the wait: the export is tried once more, then given up
+            finishing.await(EXPORT_RETRY_SECONDS, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            log.warn("{} interrupted; result not exported", thread.getName());
+            pending.exported.completeExceptionally(e);
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+    }
+  }
+}
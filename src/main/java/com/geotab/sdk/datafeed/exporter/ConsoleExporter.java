@@ -1,5 +1,12 @@
 package com.geotab.sdk.datafeed.exporter;
 
+import static com.geotab.sdk.datafeed.loader.Enrichment.CONTROLLER;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DEVICE;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DIAGNOSTIC;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DRIVER;
+import static com.geotab.sdk.datafeed.loader.Enrichment.FAILURE_MODE;
+import static com.geotab.sdk.datafeed.loader.Enrichment.RULE;
+
 import com.geotab.model.entity.NameEntity;
 import com.geotab.plain.objectmodel.Device;
 import com.geotab.plain.objectmodel.GoDevice;
@@ -10,12 +17,16 @@ import com.geotab.plain.objectmodel.engine.DataDiagnostic;
 import com.geotab.plain.objectmodel.engine.FailureMode;
 import com.geotab.plain.objectmodel.engine.FaultData;
 import com.geotab.plain.objectmodel.engine.StatusData;
+import com.geotab.plain.objectmodel.exceptions.ExceptionEvent;
 import com.geotab.sdk.datafeed.loader.DataFeedResult;
+import com.geotab.sdk.datafeed.loader.Enrichment;
 import com.google.common.collect.Iterables;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +37,7 @@ public class ConsoleExporter implements Exporter {
   private static final String STATUS_DATA_HEADER = "Vehicle Serial Number, Date, Diagnostic Name, Source Name, Value, Units";
   private static final String FAULT_DATA_HEADER = "Vehicle Serial Number, Date, Diagnostic Name, Failure Mode Name, Failure Mode Source, Controller Name";
   private static final String TRIP_HEADER = "Vehicle Serial Number, Vin, Driver Name, Trip Start Time, Trip End Time,Trip Distance";
+  private static final String EXCEPTION_HEADER = "Vehicle Serial Number, Rule Name, Diagnostic Name, Driver Name, Active From, Active To";
   //@formatter:on
   private static final Logger log = LoggerFactory.getLogger(ConsoleExporter.class);
 
@@ -35,10 +47,20 @@ public class ConsoleExporter implements Exporter {
     appendStatusData(dataFeedBuilder, dataFeedResult.statusData);
     appendFaultData(dataFeedBuilder, dataFeedResult.faultData);
     appendTrips(dataFeedBuilder, dataFeedResult.trips);
+    appendExceptionEvents(dataFeedBuilder, dataFeedResult.exceptionEvents);
     dataFeedBuilder.append("\n\n\n");
     log.info(dataFeedBuilder.toString());
   }
 
+  /**
+   * Serial numbers and VINs, the names of the diagnostic with its source and unit, of the failure
+   * mode with its source, of the controller, the driver and the rule.
+   */
+  @Override
+  public Set<Enrichment> requires() {
+    return EnumSet.of(DEVICE, DIAGNOSTIC, CONTROLLER, FAILURE_MODE, DRIVER, RULE);
+  }
+
   private void appendLogRecords(StringBuilder dataFeedBuilder, List<LogRecord> logRecords) {
     if (Iterables.isEmpty(logRecords)) return;
 
@@ -141,6 +163,37 @@ public class ConsoleExporter implements Exporter {
     dataFeedBuilder.append("\n");
   }
 
+  private void appendExceptionEvents(StringBuilder dataFeedBuilder, List<ExceptionEvent> exceptionEvents) {
+    if (Iterables.isEmpty(exceptionEvents)) {
+      return;
+    }
+
+    dataFeedBuilder.append("\n");
+    dataFeedBuilder.append(EXCEPTION_HEADER);
+
+    for (ExceptionEvent exceptionEvent : exceptionEvents) {
+      StringBuilder stringBuilder = new StringBuilder("\n");
+      appendDeviceValues(stringBuilder, exceptionEvent.device);
+      appendName(stringBuilder, exceptionEvent.rule);
+      if (exceptionEvent.diagnostic != null) {
+        appendName(stringBuilder, exceptionEvent.diagnostic);
+      } else {
+        appendValue(stringBuilder, "");
+      }
+      if (exceptionEvent.driver != null) {
+        appendName(stringBuilder, exceptionEvent.driver);
+      } else {
+        appendValue(stringBuilder, "");
+      }
+      appendValue(stringBuilder, Objects.toString(exceptionEvent.activeFrom, ""));
+      appendValue(stringBuilder, Objects.toString(exceptionEvent.activeTo, ""), false);
+
+      dataFeedBuilder.append(stringBuilder);
+    }
+
+    dataFeedBuilder.append("\n");
+  }
+
   private void appendDeviceValues(StringBuilder stringBuilder, Device device) {
     if (device != null) {
       appendValue(stringBuilder, device.serialNumber);
@@ -1,10 +1,10 @@
 package com.geotab.sdk.datafeed.exporter;
 
-import static com.geotab.util.DateTimeUtil.nowUtcLocalDateTime;
-import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.joining;
 
 import com.geotab.model.entity.NameEntity;
+import com.geotab.plain.objectmodel.Device;
+import com.geotab.plain.objectmodel.Driver;
 import com.geotab.plain.objectmodel.GoDevice;
 import com.geotab.plain.objectmodel.LogRecord;
 import com.geotab.plain.objectmodel.Trip;
@@ -12,21 +12,14 @@ import com.geotab.plain.objectmodel.XDevice;
 import com.geotab.plain.objectmodel.engine.DataDiagnostic;
 import com.geotab.plain.objectmodel.engine.FaultData;
 import com.geotab.plain.objectmodel.engine.StatusData;
+import com.geotab.plain.objectmodel.exceptions.ExceptionEvent;
 import com.geotab.sdk.datafeed.loader.DataFeedResult;
 import com.google.common.collect.Iterables;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,11 +49,26 @@ public class CsvExporter implements Exporter {
     "Trip End Time", "Trip Distance" };
 
   private static final String TRIP_FILE_NAME_PREFIX = "Trips";
+
+  private static final String[] EXCEPTION_HEADER = new String[] {
+    "Id", "Vehicle Name", "Vehicle Serial Number", "VIN", "Diagnostic Name", "Diagnostic Code",
+    "Source Name", "Driver Name", "Driver Keys", "Rule Name", "Active From", "Active To" };
+
+  private static final String EXCEPTION_FILE_NAME_PREFIX = "Exceptions";
   private static final Logger log = LoggerFactory.getLogger(CsvExporter.class);
 
-  private String outputPath;
+  private final String outputPath;
+  private final RollingCsvFile gpsFile;
+  private final RollingCsvFile statusDataFile;
+  private final RollingCsvFile faultDataFile;
+  private final RollingCsvFile tripFile;
+  private final RollingCsvFile exceptionFile;
 
   public CsvExporter(String outputPath) {
+    this(outputPath, new OutputFilePolicy());
+  }
+
+  public CsvExporter(String outputPath, OutputFilePolicy filePolicy) {
     this.outputPath = outputPath != null && !outputPath.isEmpty() ? outputPath : ".";
 
     if (!Files.exists(Paths.get(this.outputPath))) {
@@ -70,6 +78,13 @@ public class CsvExporter implements Exporter {
         throw new RuntimeException("Failed to initialize for output path " + outputPath, e);
       }
     }
+
+    Path folder = Paths.get(this.outputPath);
+    this.gpsFile = new RollingCsvFile(folder, GPS_FILE_NAME_PREFIX, GPS_DATA_HEADER, filePolicy);
+    this.statusDataFile = new RollingCsvFile(folder, STATUS_DATA_FILE_NAME_PREFIX, STATUS_DATA_HEADER, filePolicy);
+    this.faultDataFile = new RollingCsvFile(folder, FAULT_DATA_FILE_NAME_PREFIX, FAULT_DATA_HEADER, filePolicy);
+    this.tripFile = new RollingCsvFile(folder, TRIP_FILE_NAME_PREFIX, TRIP_HEADER, filePolicy);
+    this.exceptionFile = new RollingCsvFile(folder, EXCEPTION_FILE_NAME_PREFIX, EXCEPTION_HEADER, filePolicy);
   }
 
   public void export(DataFeedResult dataFeedResult) throws Exception {
@@ -77,176 +92,137 @@ public class CsvExporter implements Exporter {
     exportStatusData(dataFeedResult.statusData);
     exportFaultData(dataFeedResult.faultData);
     exportTrips(dataFeedResult.trips);
+    exportExceptionEvents(dataFeedResult.exceptionEvents);
   }
 
   private void exportLogRecords(List<LogRecord> logRecords) throws Exception {
+    if (Iterables.isEmpty(logRecords)) return;
     log.debug("Exporting LogRecords to csv…");
 
-    String csvFile = generateCsv(GPS_FILE_NAME_PREFIX, GPS_DATA_HEADER, transformLogRecords(logRecords));
+    Path csvFile = gpsFile.write(logRecords, this::encodeLogRecord);
 
     log.info("LogRecords exported to {}", csvFile);
   }
 
   private void exportStatusData(List<StatusData> statusData) throws Exception {
+    if (Iterables.isEmpty(statusData)) return;
     log.debug("Exporting StatusData to csv…");
 
-    String csvFile = generateCsv(STATUS_DATA_FILE_NAME_PREFIX, STATUS_DATA_HEADER, transformStatusData(statusData));
+    Path csvFile = statusDataFile.write(statusData, this::encodeStatusData);
 
     log.info("StatusData exported to {}", csvFile);
   }
 
   private void exportFaultData(List<FaultData> faultData) throws Exception {
+    if (Iterables.isEmpty(faultData)) return;
     log.debug("Exporting FaultData to csv…");
 
-    String csvFile = generateCsv(FAULT_DATA_FILE_NAME_PREFIX, FAULT_DATA_HEADER, transformFaultData(faultData));
+    Path csvFile = faultDataFile.write(faultData, this::encodeFaultData);
 
     log.info("FaultData exported to {}", csvFile);
   }
 
   private void exportTrips(List<Trip> trips) throws Exception {
+    if (Iterables.isEmpty(trips)) return;
     log.debug("Exporting Trips to csv…");
 
-    String csvFile = generateCsv(TRIP_FILE_NAME_PREFIX, TRIP_HEADER, transformTrips(trips));
+    Path csvFile = tripFile.write(trips, this::encodeTrip);
 
     log.info("Trips exported to {}", csvFile);
   }
 
-  private String generateCsv(String fileNamePrefix, String[] headers, List<String[]> csvRows)
-    throws Exception {
-
-    String reportFileName = "%s-%s.csv".formatted(fileNamePrefix,
-      nowUtcLocalDateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss")));
-    Path reportFilePath = Paths.get(outputPath + File.separator + reportFileName);
+  private void exportExceptionEvents(List<ExceptionEvent> exceptionEvents) throws Exception {
+    if (Iterables.isEmpty(exceptionEvents)) return;
+    log.debug("Exporting ExceptionEvents to csv…");
 
-    boolean addHeaderRow = !Files.exists(reportFilePath);
+    Path csvFile = exceptionFile.write(exceptionEvents, this::encodeExceptionEvent);
 
-    try (Writer writer = new FileWriter(reportFilePath.toString(), true)) {
-      if (addHeaderRow) {
-        writer.append(String.join(",", headers));
-      }
+    log.info("ExceptionEvents exported to {}", csvFile);
+  }
 
-      for (String[] row : csvRows) {
-        writer.append(System.lineSeparator()).append(String.join(",", row));
-      }
+  @Override
+  public void close() throws IOException {
+    try (gpsFile; statusDataFile; faultDataFile; tripFile; exceptionFile) {
+      log.debug("Closing csv files…");
     }
+  }
+
+  // Rows are encoded straight into the file's reused row buffer; see CsvRow for the escaping.
 
-    return reportFilePath.toString();
+  private void encodeLogRecord(LogRecord logRecord, CsvRow row) {
+    addDevice(row, logRecord.device);
+    row.add(logRecord.dateTime)
+      .add(logRecord.longitude)
+      .add(logRecord.latitude)
+      .add(logRecord.speed);
   }
 
-  private List<String[]> transformLogRecords(List<LogRecord> logRecords) {
-    if (Iterables.isEmpty(logRecords)) {
-      return new ArrayList<>();
-    }
+  private void encodeStatusData(StatusData data, CsvRow row) {
+    addDevice(row, data.device);
+    row.add(data.dateTime)
+      .addName(getName(data.diagnostic))
+      .add(data.diagnostic.code)
+      .addName(data.diagnostic.source != null ? getName(data.diagnostic.source) : null)
+      .add(data.data)
+      .addName(data.diagnostic instanceof DataDiagnostic ? getName(data.diagnostic.unitOfMeasure) : null);
+  }
 
-    return logRecords.stream()
-      .map(logRecord -> stream(new String[] {
-        logRecord.device.getName().replace(",", " "),
-        logRecord.device.serialNumber,
-        logRecord.device instanceof GoDevice
-          ? ((XDevice) logRecord.device)
-            .vehicleIdentificationNumber.replace(",", " ")
-          : "",
-        Objects.toString(logRecord.dateTime, ""),
-        Objects.toString(logRecord.longitude, ""),
-        Objects.toString(logRecord.latitude, ""),
-        Objects.toString(logRecord.speed, ""),
-      }).map(CsvExporter::escapeCsv).toArray(String[]::new))
-      .collect(Collectors.toList());
-  }
-
-  private List<String[]> transformStatusData(List<StatusData> statusData) {
-    if (Iterables.isEmpty(statusData)) {
-      return new ArrayList<>();
-    }
+  private void encodeFaultData(FaultData data, CsvRow row) {
+    addDevice(row, data.device);
+    row.add(data.dateTime)
+      .addName(getName(data.diagnostic))
+      .addName(getName(data.failureMode))
+      .add(data.failureMode != null ? data.failureMode.code : null)
+      .addName(data.failureMode == null || data.failureMode.isSystemEntity()
+        ? "None"
+        : getName(data.failureMode.source))
+      .addName(getName(data.controller))
+      .add(data.count)
+      .add(data.faultState)
+      .add(data.malfunctionLamp)
+      .add(data.redStopLamp)
+      .add(data.amberWarningLamp)
+      .add(data.protectWarningLamp)
+      .add(data.dismissDateTime)
+      .addName(data.dismissUser != null ? data.dismissUser.getName() : null);
+  }
 
-    return statusData.stream()
-      .map(data -> stream(new String[] {
-        data.device.getName().replace(",", " "),
-        data.device.serialNumber,
-        data.device instanceof GoDevice
-          ? ((XDevice) data.device)
-            .vehicleIdentificationNumber.replace(",", " ")
-          : "",
-        Objects.toString(data.dateTime, ""),
-        getName(data.diagnostic),
-        Objects.toString(data.diagnostic.code, ""),
-        Optional.ofNullable(data.diagnostic.source).map(this::getName).orElse(""),
-        Objects.toString(data.data, ""),
-        data.diagnostic instanceof DataDiagnostic
-          ? getName(data.diagnostic.unitOfMeasure)
-          : ""
-      }).map(CsvExporter::escapeCsv).toArray(String[]::new))
-      .collect(Collectors.toList());
-  }
-
-  private List<String[]> transformFaultData(List<FaultData> faultData) {
-    if (Iterables.isEmpty(faultData)) {
-      return new ArrayList<>();
-    }
+  private void encodeTrip(Trip trip, CsvRow row) {
+    addDevice(row, trip.device);
+    row.addName(getName(trip.driver))
+      .add(getKeys(trip.driver))
+      .add(trip.start)
+      .add(trip.stop)
+      .add(trip.distance);
+  }
+
+  private void encodeExceptionEvent(ExceptionEvent event, CsvRow row) {
+    row.add(event.getId());
+    addDevice(row, event.device);
+    row.addName(event.diagnostic != null ? getName(event.diagnostic) : null)
+      .add(event.diagnostic != null ? event.diagnostic.code : null)
+      .addName(event.diagnostic != null && event.diagnostic.source != null ? getName(event.diagnostic.source) : null)
+      .addName(event.driver != null ? getName(event.driver) : null)
+      .add(getKeys(event.driver))
+      .addName(getName(event.rule))
+      .add(event.activeFrom)
+      .add(event.activeTo);
+  }
+
+  /** The vehicle name, serial number and VIN columns. */
+  private static void addDevice(CsvRow row, Device device) {
+    row.addName(device.getName())
+      .add(device.serialNumber)
+      .addName(device instanceof GoDevice ? ((XDevice) device).vehicleIdentificationNumber : null);
+  }
+
+  private static String getName(NameEntity entity) {
+    if (entity == null) return null;
+    return entity.isSystemEntity() ? entity.getClass().getSimpleName() : entity.getName();
+  }
 
-    return faultData.stream()
-      .map(data -> stream(new String[] {
-        data.device.getName().replace(",", " "),
-        data.device.serialNumber,
-        data.device instanceof GoDevice
-          ? ((XDevice) data.device)
-            .vehicleIdentificationNumber.replace(",", " ")
-          : "",
-        Objects.toString(data.dateTime, ""),
-        getName(data.diagnostic),
-        getName(data.failureMode),
-        Optional.ofNullable(data.failureMode)
-          .map(fm -> fm.code)
-          .map(Object::toString)
-          .orElse(""),
-        data.failureMode == null || data.failureMode.isSystemEntity()
-          ? "None"
-          : getName(data.failureMode.source),
-        getName(data.controller),
-        Objects.toString(data.count, ""),
-        Objects.toString(data.faultState, ""),
-        Objects.toString(data.malfunctionLamp, ""),
-        Objects.toString(data.redStopLamp, ""),
-        Objects.toString(data.amberWarningLamp, ""),
-        Objects.toString(data.protectWarningLamp, ""),
-        Objects.toString(data.dismissDateTime, ""),
-        Optional.ofNullable(data.dismissUser)
-          .map(u -> u.getName().replace(",", " "))
-          .orElse("")
-      }).map(CsvExporter::escapeCsv).toArray(String[]::new))
-      .collect(Collectors.toList());
-  }
-
-  private List<String[]> transformTrips(List<Trip> trips) {
-    if (Iterables.isEmpty(trips)) return new ArrayList<>();
-
-    return trips.stream()
-      .map(trip -> new String[] {
-        trip.device.getName().replace(",", " "),
-        trip.device.serialNumber,
-        !(trip.device instanceof GoDevice)
-          ? ""
-          : ((XDevice) trip.device).vehicleIdentificationNumber.replace(",", " "),
-        getName(trip.driver),
-        Optional.ofNullable(trip.driver)
-          .filter(d -> !Iterables.isEmpty(d.keys))
-          .map(d -> d.keys.stream().map(k -> k.serialNumber).collect(joining("~")))
-          .orElse(""),
-        Objects.toString(trip.start, ""),
-        Objects.toString(trip.stop, ""),
-        Objects.toString(trip.distance, "")
-      }).map(array -> stream(array).map(CsvExporter::escapeCsv).toArray(String[]::new))
-      .collect(Collectors.toList());
-  }
-
-  private String getName(NameEntity entity) {
-    return entity.isSystemEntity()
-      ? entity.getClass().getSimpleName().replace(",", " ")
-      : entity.getName().replace(",", " ");
-  }
-
-  public static String escapeCsv(final String input) {
-    final String Q = String.valueOf('"');
-    return !input.contains(Q) ? input : Q + input.replaceAll(Q, Q + Q) + Q;
+  private static String getKeys(Driver driver) {
+    if (driver == null || Iterables.isEmpty(driver.keys)) return null;
+    return driver.keys.stream().map(k -> k.serialNumber).collect(joining("~"));
   }
 }
@@ -0,0 +1,82 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * One CSV line assembled field by field in a reused buffer, so a row is written without a string
+ * per field or per row. A field holding a quote is quoted, its quotes doubled, in the same single
+ * pass that copies it; other fields are copied as they are. Lines match the encoding the exporter
+ * used before, which {@code CsvRowTest} keeps as its reference.
+ */
+final class CsvRow {
+
+  private char[] chars = new char[512];
+  private int length;
+  private int fields;
+
+  /** Start a new line. */
+  CsvRow clear() {
+    length = 0;
+    fields = 0;
+    return this;
+  }
+
+  /** Append a field; null for an empty one. */
+  CsvRow add(String value) {
+    return add(value, false);
+  }
+
+  /** Append the string of a value; null for an empty field. */
+  CsvRow add(Object value) {
+    return add(value != null ? value.toString() : null, false);
+  }
+
+  /** Append a name, with commas replaced by spaces; null for an empty field. */
+  CsvRow addName(String value) {
+    return add(value, true);
+  }
+
+  void writeTo(Writer writer) throws IOException {
+    writer.write(chars, 0, length);
+  }
+
+  @Override
+  public String toString() {
+    return new String(chars, 0, length);
+  }
+
+  private CsvRow add(String value, boolean commasToSpaces) {
+    // Room for the separator and the value with every char doubled and enclosed in quotes
+    ensureCapacity(value != null ? value.length() * 2 + 3 : 1);
+    if (fields++ > 0) chars[length++] = ',';
+    if (value == null) return this;
+
+    int start = length;
+    boolean quoted = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        if (!quoted) {
+          System.arraycopy(chars, start, chars, start + 1, length - start);
+          chars[start] = '"';
+          length++;
+          quoted = true;
+        }
+        chars[length++] = '"';
+      } else if (c == ',' && commasToSpaces) {
+        c = ' ';
+      }
+      chars[length++] = c;
+    }
+    if (quoted) chars[length++] = '"';
+    return this;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + extra));
+    }
+  }
+}
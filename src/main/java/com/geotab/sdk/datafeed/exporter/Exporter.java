@@ -1,13 +1,59 @@
 package com.geotab.sdk.datafeed.exporter;
 
 import com.geotab.sdk.datafeed.loader.DataFeedResult;
+import com.geotab.sdk.datafeed.loader.Enrichment;
+import com.google.common.base.Splitter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
-public interface Exporter {
+public interface Exporter extends AutoCloseable {
 
   static Exporter create(String exportType, String outputPath) {
-    if ("csv".equalsIgnoreCase(exportType)) return new CsvExporter(outputPath);
+    return create(exportType, outputPath, new OutputFilePolicy());
+  }
+
+  /**
+   * Create the exporter of a type; for a comma separated list of types, such as {@code csv,parquet},
+   * a {@link CompositeExporter} exporting to each of them.
+   */
+  static Exporter create(String exportType, String outputPath, OutputFilePolicy filePolicy) {
+    List<String> exportTypes = Splitter.on(',').trimResults().omitEmptyStrings()
+      .splitToList(exportType != null ? exportType : "");
+    if (exportTypes.size() > 1) {
+      return new CompositeExporter(exportTypes.stream().map(type -> create(type, outputPath, filePolicy)).toList());
+    }
+
+    String type = exportTypes.isEmpty() ? null : exportTypes.getFirst();
+    if ("csv".equalsIgnoreCase(type)) return new CsvExporter(outputPath, filePolicy);
+    if ("parquet".equalsIgnoreCase(type)) return new ParquetExporter(outputPath, filePolicy);
     return new ConsoleExporter();
   }
 
   void export(DataFeedResult dataFeedResult) throws Exception;
+
+  /**
+   * Export a result, possibly in the background; the worker checkpoints the result once the
+   * returned future completes, in the order results were exported. By default, {@link #export}.
+   *
+   * @return Completes once the result is exported.
+   */
+  default CompletableFuture<Void> exportAsync(DataFeedResult dataFeedResult) throws Exception {
+    export(dataFeedResult);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * The record references this exporter reads entity fields of, such as a device serial number or
+   * a diagnostic name; the loader leaves every other reference holding only its id.
+   *
+   * @return The references to enrich; all of them by default.
+   */
+  default Set<Enrichment> requires() {
+    return Enrichment.all();
+  }
+
+  /** Flush and release what the exporter keeps open; called once the last result is exported. */
+  @Override
+  default void close() throws Exception {}
 }
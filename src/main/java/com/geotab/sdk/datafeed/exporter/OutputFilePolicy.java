@@ -0,0 +1,79 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import com.google.common.base.Splitter;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * When a file exporter starts a new file of a feed, and how it writes; the defaults roll at 128 MB
+ * or every hour and leave syncing to disk to the OS.
+ */
+public class OutputFilePolicy {
+
+  /** How file exporters compress their output. */
+  public enum Compression {
+
+    /** Plain CSV; Snappy compressed Parquet pages. */
+    NONE(""),
+
+    /** Streaming gzip CSV; gzip compressed Parquet pages. */
+    GZIP(".gz"),
+
+    /** Streaming Zstandard CSV, compressing as well as gzip several times faster; zstd Parquet pages. */
+    ZSTD(".zst");
+
+    /** The suffix of the CSV file names. */
+    public final String extension;
+
+    Compression(String extension) {
+      this.extension = extension;
+    }
+  }
+
+  /** Start a new file once the current one holds this many bytes. */
+  public long maxFileBytes = 128L * 1024 * 1024;
+
+  /** Start a new file once the current one is this old. */
+  public Duration rollInterval = Duration.ofHours(1);
+
+  /**
+   * Force every exported batch to disk before it is checkpointed, so a power loss can not lose
+   * checkpointed records; otherwise batches are only flushed to the OS.
+   */
+  public boolean fsync;
+
+  /** The bytes of rows a {@link ParquetExporter} buffers per row group, the unit readers scan. */
+  public long rowGroupBytes = 32L * 1024 * 1024;
+
+  /**
+   * How output is compressed. CSV is compressed on a thread of its own while the exporter encodes
+   * the next rows; Parquet compresses each page as it is written.
+   */
+  public Compression compression = Compression.NONE;
+
+  /**
+   * Parse a policy such as {@code maxMb=256,rollEvery=PT15M,fsync=true,rowGroupMb=64,compression=zstd};
+   * durations are ISO-8601.
+   *
+   * @param spec The policy, or null for the default.
+   * @return The policy.
+   */
+  public static OutputFilePolicy parse(String spec) {
+    var out = new OutputFilePolicy();
+    if (spec == null || spec.isBlank()) return out;
+
+    Map<String, String> values = Splitter.on(',').trimResults().omitEmptyStrings()
+      .withKeyValueSeparator('=').split(spec);
+    values.forEach((key, value) -> {
+      switch (key) {
+        case "maxMb" -> out.maxFileBytes = Long.parseLong(value) * 1024 * 1024;
+        case "rollEvery" -> out.rollInterval = Duration.parse(value);
+        case "fsync" -> out.fsync = Boolean.parseBoolean(value);
+        case "rowGroupMb" -> out.rowGroupBytes = Long.parseLong(value) * 1024 * 1024;
+        case "compression" -> out.compression = Compression.valueOf(value.toUpperCase());
+        default -> throw new IllegalArgumentException("Unknown output file setting " + key);
+      }
+    });
+    return out;
+  }
+}
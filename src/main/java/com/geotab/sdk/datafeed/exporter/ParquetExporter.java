@@ -0,0 +1,328 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import static com.geotab.sdk.datafeed.loader.Enrichment.CONTROLLER;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DEVICE;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DIAGNOSTIC;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DRIVER;
+import static com.geotab.sdk.datafeed.loader.Enrichment.FAILURE_MODE;
+import static com.geotab.sdk.datafeed.loader.Enrichment.RULE;
+
+import com.geotab.model.entity.NameEntity;
+import com.geotab.plain.objectmodel.Device;
+import com.geotab.plain.objectmodel.GoDevice;
+import com.geotab.plain.objectmodel.LogRecord;
+import com.geotab.plain.objectmodel.Trip;
+import com.geotab.plain.objectmodel.XDevice;
+import com.geotab.plain.objectmodel.engine.DataDiagnostic;
+import com.geotab.plain.objectmodel.engine.FaultData;
+import com.geotab.plain.objectmodel.engine.StatusData;
+import com.geotab.plain.objectmodel.exceptions.ExceptionEvent;
+import com.geotab.sdk.datafeed.loader.DataFeedResult;
+import com.geotab.sdk.datafeed.loader.Enrichment;
+import com.google.common.collect.Iterables;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports each feed to Parquet files with typed columns: UTC timestamps, doubles for positions,
+ * speeds and values, and dictionary encoded device, diagnostic and other names. A file is complete,
+ * and readable, once rolled; so a result only counts as exported, and is checkpointed, once every
+ * file it was written to is closed. A crash loses no checkpointed rows: the rows of open files are
+ * loaded and exported again on restart, and {@link OutputFilePolicy#rollInterval} bounds how far
+ * checkpoints trail the feed.
+ */
+public class ParquetExporter implements Exporter {
+
+  //@formatter:off
+  private static final String GPS_DATA_SCHEMA = """
+    message LogRecord {
+      optional binary vehicle_name (STRING);
+      optional binary vehicle_serial_number (STRING);
+      optional binary vin (STRING);
+      optional int64 date (TIMESTAMP(MILLIS,true));
+      optional double longitude;
+      optional double latitude;
+      optional double speed;
+    }""";
+
+  private static final String STATUS_DATA_SCHEMA = """
+    message StatusData {
+      optional binary vehicle_name (STRING);
+      optional binary vehicle_serial_number (STRING);
+      optional binary vin (STRING);
+      optional int64 date (TIMESTAMP(MILLIS,true));
+      optional binary diagnostic_name (STRING);
+      optional binary diagnostic_code (STRING);
+      optional binary source_name (STRING);
+      optional double value;
+      optional binary units (STRING);
+    }""";
+
+  private static final String FAULT_DATA_SCHEMA = """
+    message FaultData {
+      optional binary vehicle_name (STRING);
+      optional binary vehicle_serial_number (STRING);
+      optional binary vin (STRING);
+      optional int64 date (TIMESTAMP(MILLIS,true));
+      optional binary diagnostic_name (STRING);
+      optional binary failure_mode_name (STRING);
+      optional binary failure_mode_code (STRING);
+      optional binary failure_mode_source (STRING);
+      optional binary controller_name (STRING);
+      optional int64 count;
+      optional binary active (STRING);
+      optional boolean malfunction_lamp;
+      optional boolean red_stop_lamp;
+      optional boolean amber_warning_lamp;
+      optional boolean protect_lamp;
+      optional int64 dismiss_date (TIMESTAMP(MILLIS,true));
+      optional binary dismiss_user (STRING);
+    }""";
+
+  private static final String TRIP_SCHEMA = """
+    message Trip {
+      optional binary vehicle_name (STRING);
+      optional binary vehicle_serial_number (STRING);
+      optional binary vin (STRING);
+      optional binary driver_name (STRING);
+      optional int64 trip_start_time (TIMESTAMP(MILLIS,true));
+      optional int64 trip_end_time (TIMESTAMP(MILLIS,true));
+      optional double trip_distance;
+    }""";
+
+  private static final String EXCEPTION_SCHEMA = """
+    message ExceptionEvent {
+      optional binary id (STRING);
+      optional binary vehicle_name (STRING);
+      optional binary vehicle_serial_number (STRING);
+      optional binary vin (STRING);
+      optional binary diagnostic_name (STRING);
+      optional binary driver_name (STRING);
+      optional binary rule_name (STRING);
+      optional int64 active_from (TIMESTAMP(MILLIS,true));
+      optional int64 active_to (TIMESTAMP(MILLIS,true));
+    }""";
+  //@formatter:on
+
+  private static final List<String> DEVICE_COLUMNS = List.of("vehicle_name", "vehicle_serial_number", "vin");
+  private static final Logger log = LoggerFactory.getLogger(ParquetExporter.class);
+
+  private final RollingParquetFile gpsFile;
+  private final RollingParquetFile statusDataFile;
+  private final RollingParquetFile faultDataFile;
+  private final RollingParquetFile tripFile;
+  private final RollingParquetFile exceptionFile;
+
+  public ParquetExporter(String outputPath) {
+    this(outputPath, new OutputFilePolicy());
+  }
+
+  public ParquetExporter(String outputPath, OutputFilePolicy filePolicy) {
+    Path folder = Paths.get(outputPath != null && !outputPath.isEmpty() ? outputPath : ".");
+    try {
+      Files.createDirectories(folder);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to initialize for output path " + folder, e);
+    }
+
+    this.gpsFile = new RollingParquetFile(folder, "Gps_Data", MessageTypeParser.parseMessageType(GPS_DATA_SCHEMA),
+      columns(), filePolicy);
+    this.statusDataFile = new RollingParquetFile(folder, "Status_Data",
+      MessageTypeParser.parseMessageType(STATUS_DATA_SCHEMA),
+      columns("diagnostic_name", "diagnostic_code", "source_name", "units"), filePolicy);
+    this.faultDataFile = new RollingParquetFile(folder, "Fault_Data",
+      MessageTypeParser.parseMessageType(FAULT_DATA_SCHEMA),
+      columns("diagnostic_name", "failure_mode_name", "failure_mode_code", "failure_mode_source",
+        "controller_name", "active", "dismiss_user"), filePolicy);
+    this.tripFile = new RollingParquetFile(folder, "Trips", MessageTypeParser.parseMessageType(TRIP_SCHEMA),
+      columns("driver_name"), filePolicy);
+    this.exceptionFile = new RollingParquetFile(folder, "Exceptions",
+      MessageTypeParser.parseMessageType(EXCEPTION_SCHEMA),
+      columns("diagnostic_name", "driver_name", "rule_name"), filePolicy);
+  }
+
+  /**
+   * Write a result and close the files it was written to, so it is on disk on return. Every call
+   * starts new files; the worker calls {@link #exportAsync} instead, which fills them up to the
+   * {@link OutputFilePolicy}.
+   */
+  @Override
+  public void export(DataFeedResult dataFeedResult) throws Exception {
+    CompletableFuture<Void> exported = exportAsync(dataFeedResult);
+    close();
+    exported.get();
+  }
+
+  /**
+   * Write a result to the open files.
+   *
+   * @return Completes once every file the result was written to is closed.
+   */
+  @Override
+  public CompletableFuture<Void> exportAsync(DataFeedResult dataFeedResult) throws IOException {
+    // Aged files are closed even while their feed is idle, so the results in them get checkpointed
+    for (RollingParquetFile file : List.of(gpsFile, statusDataFile, faultDataFile, tripFile, exceptionFile)) {
+      file.rollIfDue();
+    }
+
+    List<CompletableFuture<Path>> closed = new ArrayList<>();
+    export("LogRecords", gpsFile, dataFeedResult.gpsRecords, this::encodeLogRecord, closed);
+    export("StatusData", statusDataFile, dataFeedResult.statusData, this::encodeStatusData, closed);
+    export("FaultData", faultDataFile, dataFeedResult.faultData, this::encodeFaultData, closed);
+    export("Trips", tripFile, dataFeedResult.trips, this::encodeTrip, closed);
+    export("ExceptionEvents", exceptionFile, dataFeedResult.exceptionEvents, this::encodeExceptionEvent, closed);
+    return CompletableFuture.allOf(closed.toArray(CompletableFuture[]::new));
+  }
+
+  private static <R> void export(String name, RollingParquetFile file, List<R> records,
+    BiConsumer<R, Group> encoder, List<CompletableFuture<Path>> closed) throws IOException {
+    if (Iterables.isEmpty(records)) return;
+    log.debug("Exporting {} to parquet…", name);
+
+    closed.add(file.write(records, encoder));
+
+    log.info("{} written to {}; exported once it is closed", name, file.path());
+  }
+
+  /**
+   * Vehicle names, serial numbers and VINs, the names and codes of the diagnostic and failure mode
+   * with their sources and unit, and the names of the controller, the driver and the rule.
+   */
+  @Override
+  public Set<Enrichment> requires() {
+    return EnumSet.of(DEVICE, DIAGNOSTIC, CONTROLLER, FAILURE_MODE, DRIVER, RULE);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try (gpsFile; statusDataFile; faultDataFile; tripFile; exceptionFile) {
+      log.debug("Closing parquet files…");
+    }
+  }
+
+  private void encodeLogRecord(LogRecord logRecord, Group row) {
+    addDevice(row, logRecord.device);
+    addTimestamp(row, "date", logRecord.dateTime);
+    addDouble(row, "longitude", logRecord.longitude);
+    addDouble(row, "latitude", logRecord.latitude);
+    addDouble(row, "speed", logRecord.speed);
+  }
+
+  private void encodeStatusData(StatusData data, Group row) {
+    addDevice(row, data.device);
+    addTimestamp(row, "date", data.dateTime);
+    addString(row, "diagnostic_name", getName(data.diagnostic));
+    if (data.diagnostic != null) {
+      addString(row, "diagnostic_code", data.diagnostic.code);
+      addString(row, "source_name", getName(data.diagnostic.source));
+      if (data.diagnostic instanceof DataDiagnostic) {
+        addString(row, "units", getName(data.diagnostic.unitOfMeasure));
+      }
+    }
+    addDouble(row, "value", data.data);
+  }
+
+  private void encodeFaultData(FaultData data, Group row) {
+    addDevice(row, data.device);
+    addTimestamp(row, "date", data.dateTime);
+    addString(row, "diagnostic_name", getName(data.diagnostic));
+    addString(row, "failure_mode_name", getName(data.failureMode));
+    if (data.failureMode != null) {
+      addString(row, "failure_mode_code", data.failureMode.code);
+      addString(row, "failure_mode_source",
+        data.failureMode.isSystemEntity() ? "None" : getName(data.failureMode.source));
+    }
+    addString(row, "controller_name", getName(data.controller));
+    addLong(row, "count", data.count);
+    addString(row, "active", data.faultState);
+    addBoolean(row, "malfunction_lamp", data.malfunctionLamp);
+    addBoolean(row, "red_stop_lamp", data.redStopLamp);
+    addBoolean(row, "amber_warning_lamp", data.amberWarningLamp);
+    addBoolean(row, "protect_lamp", data.protectWarningLamp);
+    addTimestamp(row, "dismiss_date", data.dismissDateTime);
+    if (data.dismissUser != null) addString(row, "dismiss_user", data.dismissUser.getName());
+  }
+
+  private void encodeTrip(Trip trip, Group row) {
+    addDevice(row, trip.device);
+    addString(row, "driver_name", getName(trip.driver));
+    addTimestamp(row, "trip_start_time", trip.start);
+    addTimestamp(row, "trip_end_time", trip.stop);
+    addDouble(row, "trip_distance", trip.distance);
+  }
+
+  private void encodeExceptionEvent(ExceptionEvent event, Group row) {
+    addString(row, "id", event.getId());
+    addDevice(row, event.device);
+    addString(row, "diagnostic_name", getName(event.diagnostic));
+    addString(row, "driver_name", getName(event.driver));
+    addString(row, "rule_name", getName(event.rule));
+    addTimestamp(row, "active_from", event.activeFrom);
+    addTimestamp(row, "active_to", event.activeTo);
+  }
+
+  /** The device columns and the given ones, the columns to dictionary encode. */
+  private static List<String> columns(String... names) {
+    return Stream.concat(DEVICE_COLUMNS.stream(), Stream.of(names)).toList();
+  }
+
+  private static void addDevice(Group row, Device device) {
+    if (device == null) return;
+    addString(row, "vehicle_name", device.getName());
+    addString(row, "vehicle_serial_number", device.serialNumber);
+    if (device instanceof GoDevice) {
+      addString(row, "vin", ((XDevice) device).vehicleIdentificationNumber);
+    }
+  }
+
+  private static String getName(NameEntity entity) {
+    if (entity == null) return null;
+    return entity.isSystemEntity() ? entity.getClass().getSimpleName() : entity.getName();
+  }
+
+  private static void addString(Group row, String column, Object value) {
+    if (value != null) row.add(column, value.toString());
+  }
+
+  private static void addLong(Group row, String column, Number value) {
+    if (value != null) row.add(column, value.longValue());
+  }
+
+  private static void addDouble(Group row, String column, Number value) {
+    if (value != null) row.add(column, value.doubleValue());
+  }
+
+  private static void addBoolean(Group row, String column, Boolean value) {
+    if (value != null) row.add(column, value);
+  }
+
+  /** Add a date of the SDK's model, which is either zoned or UTC, as UTC epoch milliseconds. */
+  private static void addTimestamp(Group row, String column, Object value) {
+    switch (value) {
+      case null -> { }
+      case Instant instant -> row.add(column, instant.toEpochMilli());
+      case LocalDateTime local -> row.add(column, local.toInstant(ZoneOffset.UTC).toEpochMilli());
+      case OffsetDateTime offset -> row.add(column, offset.toInstant().toEpochMilli());
+      case ZonedDateTime zoned -> row.add(column, zoned.toInstant().toEpochMilli());
+      default -> throw new IllegalArgumentException("Unsupported date " + value.getClass());
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import static com.geotab.util.DateTimeUtil.nowUtcLocalDateTime;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The CSV files of one feed: a single channel kept open with a large write buffer, so a batch costs
+ * one write (and optionally one sync) instead of an open and a close. A new file, named by the time
+ * it was started, is rolled to by size (compressed, if it is) or age.
+ */
+final class RollingCsvFile implements Closeable {
+
+  private static final int BUFFER_SIZE = 256 * 1024;
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+  private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss");
+
+  private final Path folder;
+  private final String fileNamePrefix;
+  private final String header;
+  private final OutputFilePolicy policy;
+  private final CsvRow row = new CsvRow();
+  private FileChannel channel;
+  private Writer writer;
+  private Path path;
+  private Instant rollAt;
+
+  RollingCsvFile(Path folder, String fileNamePrefix, String[] headers, OutputFilePolicy policy) {
+    this.folder = folder;
+    this.fileNamePrefix = fileNamePrefix;
+    this.header = String.join(",", headers);
+    this.policy = policy;
+  }
+
+  /**
+   * Append a row per record, then flush them to the OS (and to disk with {@link
+   * OutputFilePolicy#fsync}), so they are written before the batch is checkpointed.
+   *
+   * @param records The records.
+   * @param encoder Adds the fields of a record to its row.
+   * @return The file written to.
+   */
+  <R> Path write(List<R> records, BiConsumer<R, CsvRow> encoder) throws IOException {
+    if (channel == null || channel.size() >= policy.maxFileBytes || !Instant.now().isBefore(rollAt)) {
+      roll();
+    }
+
+    for (R record : records) {
+      encoder.accept(record, row.clear());
+      writer.write(LINE_SEPARATOR);
+      row.writeTo(writer);
+    }
+    writer.flush();
+    if (policy.fsync) channel.force(false);
+
+    return path;
+  }
+
+  private void roll() throws IOException {
+    close();
+
+    // Files rolled within the same second get a sequence suffix
+    String time = nowUtcLocalDateTime().format(FILE_TIME);
+    String extension = ".csv" + policy.compression.extension;
+    path = folder.resolve("%s-%s%s".formatted(fileNamePrefix, time, extension));
+    for (int i = 2; Files.exists(path); i++) {
+      path = folder.resolve("%s-%s-%d%s".formatted(fileNamePrefix, time, i, extension));
+    }
+
+    channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    OutputStream out = new ChannelStream(channel);
+    out = switch (policy.compression) {
+      case NONE -> out;
+      // Sync flushed, so each flushed batch can be decompressed before the file is closed
+      case GZIP -> new AsyncCompressingStream(
+        new GZIPOutputStream(out, BUFFER_SIZE, true), fileNamePrefix + "-gzip");
+      case ZSTD -> new AsyncCompressingStream(new ZstdOutputStream(out), fileNamePrefix + "-zstd");
+    };
+    writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8), BUFFER_SIZE);
+    writer.write(header);
+    rollAt = Instant.now().plus(policy.rollInterval);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel == null) return;
+    try (FileChannel closing = channel) {
+      // Ends the compressed stream, if any; the channel stays open
+      writer.close();
+      if (policy.fsync) closing.force(true);
+    } finally {
+      channel = null;
+      writer = null;
+    }
+  }
+
+  /** Writes to a channel and leaves closing it to the file. */
+  private static final class ChannelStream extends OutputStream {
+
+    private final FileChannel channel;
+
+    ChannelStream(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int count) throws IOException {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, count);
+      while (buffer.hasRemaining()) channel.write(buffer);
+    }
+  }
+}
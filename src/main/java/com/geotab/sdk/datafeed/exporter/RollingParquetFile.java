@@ -0,0 +1,136 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import static com.geotab.util.DateTimeUtil.nowUtcLocalDateTime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ * The Parquet files of one feed. A file is written under a {@code .inprogress} name and only gets
+ * its {@code .parquet} name once rolled by size or age and closed, since a Parquet file can not be
+ * read before its footer is written; until then its rows are only in memory or unreadable on disk.
+ */
+final class RollingParquetFile implements Closeable {
+
+  private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss");
+  private static final String IN_PROGRESS = ".inprogress";
+
+  private final Path folder;
+  private final String fileNamePrefix;
+  private final MessageType schema;
+  private final List<String> dictionaryColumns;
+  private final OutputFilePolicy policy;
+  private final SimpleGroupFactory groups;
+  private ParquetWriter<Group> writer;
+  private Path path;
+  private CompletableFuture<Path> closed;
+  private Instant rollAt;
+
+  /**
+   * @param dictionaryColumns The columns of few distinct values, such as names, to dictionary
+   *     encode; the others are plain encoded.
+   */
+  RollingParquetFile(Path folder, String fileNamePrefix, MessageType schema, List<String> dictionaryColumns,
+    OutputFilePolicy policy) {
+    this.folder = folder;
+    this.fileNamePrefix = fileNamePrefix;
+    this.schema = schema;
+    this.dictionaryColumns = dictionaryColumns;
+    this.policy = policy;
+    this.groups = new SimpleGroupFactory(schema);
+  }
+
+  /**
+   * Append a row per record.
+   *
+   * @param records The records.
+   * @param encoder Sets the columns of a record on its row.
+   * @return Completes with the file written to once it is closed and renamed, and the rows are on
+   *     disk; fails if closing it fails.
+   */
+  <R> CompletableFuture<Path> write(List<R> records, BiConsumer<R, Group> encoder) throws IOException {
+    if (writer == null || isDue()) roll();
+
+    for (R record : records) {
+      Group row = groups.newGroup();
+      encoder.accept(record, row);
+      writer.write(row);
+    }
+
+    return closed;
+  }
+
+  /** The open file, named as it will be once closed. */
+  Path path() {
+    return path;
+  }
+
+  /** Close the open file if it is due to roll, even though no rows are waiting for the next one. */
+  void rollIfDue() throws IOException {
+    if (writer != null && isDue()) close();
+  }
+
+  private boolean isDue() {
+    return writer.getDataSize() >= policy.maxFileBytes || !Instant.now().isBefore(rollAt);
+  }
+
+  private void roll() throws IOException {
+    close();
+
+    String time = nowUtcLocalDateTime().format(FILE_TIME);
+    path = folder.resolve("%s-%s.parquet".formatted(fileNamePrefix, time));
+    for (int i = 2; Files.exists(path) || Files.exists(inProgress(path)); i++) {
+      path = folder.resolve("%s-%s-%d.parquet".formatted(fileNamePrefix, time, i));
+    }
+
+    var builder = ExampleParquetWriter.builder(new LocalOutputFile(inProgress(path)))
+      .withType(schema)
+      .withWriteMode(ParquetFileWriter.Mode.CREATE)
+      .withCompressionCodec(switch (policy.compression) {
+        case NONE -> CompressionCodecName.SNAPPY;
+        case GZIP -> CompressionCodecName.GZIP;
+        case ZSTD -> CompressionCodecName.ZSTD;
+      })
+      .withRowGroupSize(policy.rowGroupBytes)
+      .withDictionaryEncoding(false);
+    dictionaryColumns.forEach(column -> builder.withDictionaryEncoding(column, true));
+    writer = builder.build();
+    closed = new CompletableFuture<>();
+    rollAt = Instant.now().plus(policy.rollInterval);
+  }
+
+  private static Path inProgress(Path path) {
+    return path.resolveSibling(path.getFileName() + IN_PROGRESS);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (writer == null) return;
+    try {
+      writer.close();
+      Files.move(inProgress(path), path, StandardCopyOption.ATOMIC_MOVE);
+      closed.complete(path);
+    } catch (IOException | RuntimeException e) {
+      closed.completeExceptionally(e);
+      throw e;
+    } finally {
+      writer = null;
+    }
+  }
+}
@@ -1,27 +1,69 @@
 package com.geotab.sdk.datafeed.loader;
 
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.EXCEPTION_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.FAULT_DATA_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.GPS_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.TRIP_FEED;
+import static com.geotab.sdk.datafeed.loader.DataFeedResult.statusDataFeed;
+import static com.geotab.sdk.datafeed.loader.Enrichment.CONTROLLER;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DEVICE;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DIAGNOSTIC;
+import static com.geotab.sdk.datafeed.loader.Enrichment.DRIVER;
+import static com.geotab.sdk.datafeed.loader.Enrichment.FAILURE_MODE;
+import static com.geotab.sdk.datafeed.loader.Enrichment.RULE;
+import static com.geotab.util.Util.apply;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import com.geotab.api.GeotabApi;
 import com.geotab.http.exception.DbUnavailableException;
 import com.geotab.http.exception.OverLimitException;
 import com.geotab.http.invoker.ServerInvoker;
+import com.geotab.model.entity.Entity;
 import com.geotab.model.login.Credentials;
 import com.geotab.plain.Entities;
 import com.geotab.plain.objectmodel.Driver;
 import com.geotab.plain.objectmodel.User;
 import com.geotab.plain.objectmodel.LogRecord;
+import com.geotab.plain.objectmodel.LogRecordSearch;
 import com.geotab.plain.objectmodel.Trip;
+import com.geotab.plain.objectmodel.TripSearch;
+import com.geotab.plain.objectmodel.engine.DiagnosticSearch;
 import com.geotab.plain.objectmodel.engine.FaultData;
+import com.geotab.plain.objectmodel.engine.FaultDataSearch;
 import com.geotab.plain.objectmodel.engine.StatusData;
+import com.geotab.plain.objectmodel.engine.StatusDataSearch;
+import com.geotab.plain.objectmodel.exceptions.ExceptionEvent;
+import com.geotab.plain.objectmodel.exceptions.ExceptionEventSearch;
 import com.geotab.sdk.datafeed.cache.ControllerCache;
 import com.geotab.sdk.datafeed.cache.DeviceCache;
 import com.geotab.sdk.datafeed.cache.DiagnosticCache;
 import com.geotab.sdk.datafeed.cache.FailureModeCache;
+import com.geotab.sdk.datafeed.cache.GeotabEntityCache;
+import com.geotab.sdk.datafeed.cache.RuleCache;
+import com.geotab.sdk.datafeed.cache.SharedEntityCaches;
 import com.geotab.sdk.datafeed.cache.UnitOfMeasureCache;
 import com.geotab.sdk.datafeed.cache.UserCache;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +72,13 @@ public class DataFeedLoader {
 
   private static final Logger log = LoggerFactory.getLogger(DataFeedLoader.class);
 
+  /** Geotab's default (and maximum) GetFeed page size. */
+  static final int FEED_RESULTS_LIMIT = 50_000;
+
+  /** Shared caches reloaded by another loader within this age are left as they are. */
+  private static final Duration SHARED_CACHE_MAX_AGE = Duration.ofHours(1);
+
+  private final String serverUrl;
   private final GeotabApi geotabApi;
   private final DataFeedParameters dataFeedParameters;
   private final ControllerCache controllerCache;
@@ -38,18 +87,83 @@ public class DataFeedLoader {
   private final FailureModeCache failureModeCache;
   private final DeviceCache deviceCache;
   private final UserCache userCache;
+  private final RuleCache ruleCache;
+  private final Executor feedExecutor;
+  private final ExecutorService ownExecutor;
+  private final FeedPipeline<LogRecord> gpsFeed;
+  private final List<FeedPipeline<StatusData>> statusDataFeeds = new ArrayList<>();
+  private final FeedPipeline<FaultData> faultDataFeed;
+  private final FeedPipeline<Trip> tripFeed;
+  private final FeedPipeline<ExceptionEvent> exceptionFeed;
+  private final List<FeedPipeline<?>> pipelines = new ArrayList<>();
+  private final PollScheduler batchScheduler;
+  /** Completed by {@link #stopWaiting()}; ends the wait for idle feeds, which backs off for minutes. */
+  private final CompletableFuture<Void> stopping = new CompletableFuture<>();
   private LocalDateTime cacheReloadTime;
+  private LocalDateTime cacheRefreshTime;
+  private boolean cachesLoaded;
 
   public DataFeedLoader(String serverUrl, Credentials credentials, DataFeedParameters feedParameters) {
+    this(serverUrl, credentials, feedParameters, null);
+  }
+
+  /**
+   * Create a loader.
+   *
+   * @param serverUrl The server.
+   * @param credentials The database credentials.
+   * @param feedParameters The feed parameters and tokens.
+   * @param feedExecutor The executor to run feed requests on, possibly shared between loaders; null
+   *     for a private thread pool.
+   */
+  public DataFeedLoader(
+    String serverUrl, Credentials credentials, DataFeedParameters feedParameters, Executor feedExecutor) {
+    this.serverUrl = serverUrl;
     this.geotabApi = new GeotabApi(credentials, serverUrl, ServerInvoker.DEFAULT_TIMEOUT);
     this.dataFeedParameters = feedParameters;
     this.cacheReloadTime = LocalDateTime.now().minusMinutes(1);
-    this.controllerCache = new ControllerCache(geotabApi);
-    this.unitOfMeasureCache = new UnitOfMeasureCache(geotabApi);
-    this.diagnosticCache = new DiagnosticCache(geotabApi, controllerCache, unitOfMeasureCache);
-    this.failureModeCache = new FailureModeCache(geotabApi);
-    this.deviceCache = new DeviceCache(geotabApi);
-    this.userCache = new UserCache(geotabApi);
+    this.cacheRefreshTime = cacheReloadTime;
+    this.ownExecutor = feedExecutor != null ? null : Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("data-feed-%d").setDaemon(true).build());
+    this.feedExecutor = feedExecutor != null ? feedExecutor : ownExecutor;
+    // System-wide catalogues are shared by the loaders of all databases on the server
+    this.controllerCache =
+      SharedEntityCaches.acquire(serverUrl, ControllerCache.class, geotabApi, this.feedExecutor,
+        ControllerCache::new);
+    this.unitOfMeasureCache =
+      SharedEntityCaches.acquire(serverUrl, UnitOfMeasureCache.class, geotabApi, this.feedExecutor,
+        UnitOfMeasureCache::new);
+    this.diagnosticCache = new DiagnosticCache(geotabApi, controllerCache, unitOfMeasureCache,
+      feedParameters.diagnosticCachePolicy);
+    this.failureModeCache =
+      SharedEntityCaches.acquire(serverUrl, FailureModeCache.class, geotabApi, this.feedExecutor,
+        FailureModeCache::new);
+    this.deviceCache = new DeviceCache(geotabApi, feedParameters.deviceCachePolicy);
+    this.userCache = new UserCache(geotabApi, feedParameters.userCachePolicy);
+    this.ruleCache = new RuleCache(geotabApi);
+    // Background cache reloads are API calls too: keep them under the executor's cap
+    for (var cache : List.of(diagnosticCache, deviceCache, userCache, ruleCache)) cache.useExecutor(this.feedExecutor);
+    this.batchScheduler = new PollScheduler(resultsLimit(null));
+    this.cachesLoaded = loadCacheSnapshots();
+
+    this.gpsFeed = new FeedPipeline<>(GPS_FEED, this::loadLogRecords, this.feedExecutor,
+      new PollScheduler(resultsLimit(feedParameters.gpsResultsLimit)));
+    for (String diagnosticId : statusDataDiagnostics()) {
+      statusDataFeeds.add(new FeedPipeline<>(statusDataFeed(diagnosticId),
+        limit -> loadStatusData(diagnosticId, limit), this.feedExecutor,
+        new PollScheduler(resultsLimit(feedParameters.statusDataResultsLimit))));
+    }
+    this.faultDataFeed = new FeedPipeline<>(FAULT_DATA_FEED, this::loadFaultData, this.feedExecutor,
+      new PollScheduler(resultsLimit(feedParameters.faultDataResultsLimit)));
+    this.tripFeed = new FeedPipeline<>(TRIP_FEED, this::loadTrips, this.feedExecutor,
+      new PollScheduler(resultsLimit(feedParameters.tripResultsLimit)));
+    this.exceptionFeed = new FeedPipeline<>(EXCEPTION_FEED, this::loadExceptionEvents, this.feedExecutor,
+      new PollScheduler(resultsLimit(feedParameters.exceptionResultsLimit)));
+    this.pipelines.add(gpsFeed);
+    this.pipelines.addAll(statusDataFeeds);
+    this.pipelines.add(faultDataFeed);
+    this.pipelines.add(tripFeed);
+    this.pipelines.add(exceptionFeed);
   }
 
   public DataFeedResult load() {
@@ -57,130 +171,462 @@ public class DataFeedLoader {
 
     try {
       reloadCaches();
+    } catch (Exception exception) {
+      log.error("Can not reload caches", exception);
+    }
 
-      // TODO loadExceptionEvents()
+    if (dataFeedParameters.batchFeeds) {
+      return loadBatchSafely();
+    }
+
+    // Every feed runs independently; deliver whatever has arrived, leave slow feeds in flight.
+    pipelines.forEach(FeedPipeline::submitIfIdle);
+    awaitAnyPipeline();
+
+    var out = new DataFeedResult();
+    out.gpsRecords = poll(gpsFeed, out);
+    out.statusData = statusDataFeeds.size() == 1 ? poll(statusDataFeeds.getFirst(), out) : new ArrayList<>();
+    if (statusDataFeeds.size() > 1) {
+      statusDataFeeds.forEach(feed -> out.statusData.addAll(poll(feed, out)));
+    }
+    out.faultData = poll(faultDataFeed, out);
+    out.trips = poll(tripFeed, out);
+    out.exceptionEvents = poll(exceptionFeed, out);
+    return out;
+  }
 
-      var out = new DataFeedResult();
-      out.gpsRecords = loadLogRecords();
-      out.statusData = loadStatusData();
-      out.faultData = loadFaultData();
-      out.trips = loadTrips();
-      return out;
+  /**
+   * Stop waiting for idle feeds: the current and every later {@link #load()} returns what has
+   * arrived so far. Called from another thread when the worker is stopping.
+   */
+  public void stopWaiting() {
+    stopping.complete(null);
+  }
+
+  public void stop() {
+    if (ownExecutor != null) ownExecutor.shutdownNow();
+    saveCacheSnapshots();
+    entityCaches().forEach((name, cache) -> logCacheStats(name, cache, true));
+    SharedEntityCaches.release(serverUrl, controllerCache, geotabApi);
+    SharedEntityCaches.release(serverUrl, unitOfMeasureCache, geotabApi);
+    SharedEntityCaches.release(serverUrl, failureModeCache, geotabApi);
+    geotabApi.disconnect();
+  }
+
+  private static <T> List<T> poll(FeedPipeline<T> pipeline, DataFeedResult out) {
+    FeedPage<T> page = pipeline.poll();
+    if (page.toVersion() != null) out.tokens.put(pipeline.name(), page.toVersion());
+    return page.data();
+  }
+
+  private DataFeedResult loadBatchSafely() {
+    sleep(batchScheduler.nextDelay().toMillis());
+    try {
+      return loadBatch();
     } catch (DbUnavailableException dbUnavailableException) {
       log.error("Db unavailable", dbUnavailableException);
-      try {
-        Thread.sleep(5 * 60 * 1000);
-      } catch (InterruptedException e) {
-        log.warn("Can not sleep due to DbUnavailableException", e);
-      }
+      batchScheduler.onDbUnavailable();
     } catch (OverLimitException overLimitException) {
-      log.error("OverLimitException ({}); sleeping for 1 minute…  ", overLimitException.getMessage());
-      try {
-        Thread.sleep(60 * 1000);
-      } catch (InterruptedException e) {
-        log.warn("Can not sleep due to OverLimitException", e);
-      }
+      log.error("OverLimitException ({}); backing off…", overLimitException.getMessage());
+      batchScheduler.onRateLimited();
     } catch (Exception exception) {
       log.error("Can not load data feed", exception);
+      batchScheduler.onError();
     }
 
-    var out = new DataFeedResult();
-    out.gpsRecords = new ArrayList<>();
-    out.statusData = new ArrayList<>();
-    out.faultData = new ArrayList<>();
-    out.trips = new ArrayList<>();
-    return out;
+    return new DataFeedResult();
   }
 
-  public void stop() {
-    geotabApi.disconnect();
+  private void sleep(long millis) {
+    if (millis <= 0) return;
+    try {
+      stopping.get(millis, MILLISECONDS);
+    } catch (TimeoutException e) {
+      // Slept the whole delay
+    } catch (InterruptedException e) {
+      log.warn("Can not sleep", e);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void awaitAnyPipeline() {
+    try {
+      List<CompletableFuture<?>> waits = new ArrayList<>();
+      pipelines.forEach(pipeline -> waits.add(pipeline.inFlight()));
+      waits.add(stopping);
+      CompletableFuture.anyOf(waits.toArray(CompletableFuture[]::new)).get();
+    } catch (InterruptedException e) {
+      log.warn("Interrupted while waiting for data feed", e);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      log.error("Can not load data feed", e.getCause());
+    }
   }
 
   private void reloadCaches() {
+    // Entities with a GetFeed follow their feed in place, so renames and new devices show up within
+    // a minute; the rest rarely change and are reloaded twice a day. Controllers and units of
+    // measure come first: diagnostics are linked to them as they are cached.
     if (LocalDateTime.now().isAfter(cacheReloadTime)) {
-      log.debug("Reloading caches");
+      cacheReloadTime = LocalDateTime.now().plusHours(12);
+      if (cachesLoaded) {
+        // Loaded caches keep serving lookups; each reload swaps its new snapshot in when done.
+        CompletableFuture.runAsync(this::reloadAllCaches, feedExecutor);
+      } else {
+        reloadAllCaches();
+        cachesLoaded = true;
+      }
+    }
 
-      controllerCache.reloadAll();
-      unitOfMeasureCache.reloadAll();
-      diagnosticCache.reloadAll();
-      failureModeCache.reloadAll();
-      deviceCache.reloadAll();
-      userCache.reloadAll();
-      // TODO ruleCache
+    if (LocalDateTime.now().isAfter(cacheRefreshTime)) {
+      log.debug("Refreshing caches");
 
-      cacheReloadTime = LocalDateTime.now().plusHours(12);
+      if (enriches(DIAGNOSTIC)) diagnosticCache.refresh();
+      if (enriches(DEVICE)) deviceCache.refresh();
+      if (enriches(DRIVER)) userCache.refresh();
+      entityCaches().forEach((name, cache) -> logCacheStats(name, cache, false));
+
+      cacheRefreshTime = LocalDateTime.now().plusMinutes(1);
     }
   }
 
-  private List<LogRecord> loadLogRecords() {
-    log.info("Getting LogRecord feed fromVersion {}", dataFeedParameters.lastGpsDataToken);
-    var result = geotabApi.callGetFeed(Entities.LogRecordEntity, null, dataFeedParameters.lastGpsDataToken, null);
-    if (result.isEmpty()) return Collections.emptyList();
+  private void reloadAllCaches() {
+    log.debug("Reloading caches");
+
+    if (enriches(CONTROLLER) || enriches(DIAGNOSTIC)) controllerCache.reloadAll(SHARED_CACHE_MAX_AGE);
+    if (enriches(DIAGNOSTIC)) unitOfMeasureCache.reloadAll(SHARED_CACHE_MAX_AGE);
+    if (enriches(FAILURE_MODE)) failureModeCache.reloadAll(SHARED_CACHE_MAX_AGE);
+    if (enriches(RULE)) ruleCache.reloadAll();
+
+    saveCacheSnapshots();
+  }
+
+  private boolean enriches(Enrichment reference) {
+    return dataFeedParameters.enrichments.contains(reference);
+  }
+
+  /** The caches the exporter's references need, by entity type name. */
+  private Map<String, GeotabEntityCache<?>> entityCaches() {
+    Map<String, GeotabEntityCache<?>> caches = new LinkedHashMap<>();
+    if (enriches(CONTROLLER) || enriches(DIAGNOSTIC)) caches.put("Controller", controllerCache);
+    if (enriches(DIAGNOSTIC)) caches.put("UnitOfMeasure", unitOfMeasureCache);
+    if (enriches(DIAGNOSTIC)) caches.put("Diagnostic", diagnosticCache);
+    if (enriches(FAILURE_MODE)) caches.put("FailureMode", failureModeCache);
+    if (enriches(DEVICE)) caches.put("Device", deviceCache);
+    if (enriches(DRIVER)) caches.put("User", userCache);
+    if (enriches(RULE)) caches.put("Rule", ruleCache);
+    return caches;
+  }
+
+  private static void logCacheStats(String name, GeotabEntityCache<?> cache, boolean summary) {
+    if (!summary && !log.isDebugEnabled()) return;
+
+    CacheStats stats = cache.stats();
+    String message = "{} cache: {} entities, hit rate {}, {} misses, {} loads averaging {} ms, {} evictions";
+    Object[] args = { name, cache.size(), String.format("%.3f", stats.hitRate()), stats.missCount(),
+      stats.loadCount(), String.format("%.1f", stats.averageLoadPenalty() / 1e6), stats.evictionCount() };
+    if (summary) {
+      log.info(message, args);
+    } else {
+      log.debug(message, args);
+    }
+  }
+
+  /**
+   * Hydrate the caches from their snapshots, so the first pages are enriched without waiting for a
+   * full reload.
+   *
+   * @return Whether every cache was loaded from a snapshot.
+   */
+  private boolean loadCacheSnapshots() {
+    if (dataFeedParameters.cacheFolder == null) return false;
+
+    boolean loaded = true;
+    for (var entry : entityCaches().entrySet()) {
+      // A shared cache may already have been loaded by another loader
+      loaded &= entry.getValue().size() > 0 || entry.getValue().loadSnapshot(snapshotFile(entry.getKey()));
+    }
+    return loaded;
+  }
+
+  private void saveCacheSnapshots() {
+    if (dataFeedParameters.cacheFolder == null) return;
+
+    entityCaches().forEach((name, cache) -> cache.saveSnapshot(snapshotFile(name)));
+  }
+
+  private Path snapshotFile(String entityName) {
+    return dataFeedParameters.cacheFolder.resolve(entityName + ".snapshot");
+  }
+
+  /**
+   * Load all feeds with a single multi-call, one round trip per cycle instead of one per feed.
+   *
+   * @return The loaded and enriched feed data.
+   */
+  private DataFeedResult loadBatch() {
+    log.info("Getting LogRecord/StatusData/FaultData/Trip/ExceptionEvent feeds fromVersion {}/{}/{}/{}/{}"
+        + " in one multi-call", dataFeedParameters.lastGpsDataToken, dataFeedParameters.lastStatusDataToken,
+      dataFeedParameters.lastFaultDataToken, dataFeedParameters.lastTripToken, dataFeedParameters.lastExceptionToken);
+
+    var call = geotabApi.buildMultiCall();
+    String gpsToken = dataFeedParameters.lastGpsDataToken;
+    int gpsLimit = resultsLimit(dataFeedParameters.gpsResultsLimit);
+    var gpsResult = call.callGetFeed(Entities.LogRecordEntity, logRecordSearch(gpsToken), gpsToken, gpsLimit);
+    int statusLimit = resultsLimit(dataFeedParameters.statusDataResultsLimit);
+    Map<String, Supplier<FeedPage<StatusData>>> statusResults = new LinkedHashMap<>();
+    for (String diagnosticId : statusDataDiagnostics()) {
+      String token = statusDataToken(diagnosticId);
+      var result = call.callGetFeed(Entities.StatusDataEntity, statusDataSearch(diagnosticId, token), token,
+        statusLimit);
+      statusResults.put(diagnosticId, () -> result.get() == null ? FeedPage.empty()
+        : new FeedPage<>(result.get().getData(), result.get().getToVersion()));
+    }
+    String faultToken = dataFeedParameters.lastFaultDataToken;
+    int faultLimit = resultsLimit(dataFeedParameters.faultDataResultsLimit);
+    var faultResult = call.callGetFeed(Entities.FaultDataEntity, faultDataSearch(faultToken), faultToken, faultLimit);
+    String tripToken = dataFeedParameters.lastTripToken;
+    int tripLimit = resultsLimit(dataFeedParameters.tripResultsLimit);
+    var tripResult = call.callGetFeed(Entities.TripEntity, tripSearch(tripToken), tripToken, tripLimit);
+    String exceptionToken = dataFeedParameters.lastExceptionToken;
+    int exceptionLimit = resultsLimit(dataFeedParameters.exceptionResultsLimit);
+    var exceptionResult = call.callGetFeed(Entities.ExceptionEventEntity, exceptionEventSearch(exceptionToken),
+      exceptionToken, exceptionLimit);
+    call.execute(); // if succeeds, each supplier will contain the corresponding feed result
+
+    var out = new DataFeedResult();
+    boolean full = false;
+    if (gpsResult.get() != null) {
+      dataFeedParameters.lastGpsDataToken = gpsResult.get().getToVersion();
+      out.tokens.put(GPS_FEED, gpsResult.get().getToVersion());
+      out.gpsRecords = enrichLogRecords(gpsResult.get().getData());
+      full = out.gpsRecords.size() >= gpsLimit;
+    }
+    for (var entry : statusResults.entrySet()) {
+      FeedPage<StatusData> page = entry.getValue().get();
+      if (page.toVersion() == null) continue;
+      setStatusDataToken(entry.getKey(), page.toVersion());
+      out.tokens.put(statusDataFeed(entry.getKey()), page.toVersion());
+      out.statusData.addAll(enrichStatusData(page.data()));
+      full |= page.data().size() >= statusLimit;
+    }
+    if (faultResult.get() != null) {
+      dataFeedParameters.lastFaultDataToken = faultResult.get().getToVersion();
+      out.tokens.put(FAULT_DATA_FEED, faultResult.get().getToVersion());
+      out.faultData = enrichFaultData(faultResult.get().getData());
+      full |= out.faultData.size() >= faultLimit;
+    }
+    if (tripResult.get() != null) {
+      dataFeedParameters.lastTripToken = tripResult.get().getToVersion();
+      out.tokens.put(TRIP_FEED, tripResult.get().getToVersion());
+      out.trips = enrichTrips(tripResult.get().getData());
+      full |= out.trips.size() >= tripLimit;
+    }
+    if (exceptionResult.get() != null) {
+      dataFeedParameters.lastExceptionToken = exceptionResult.get().getToVersion();
+      out.tokens.put(EXCEPTION_FEED, exceptionResult.get().getToVersion());
+      out.exceptionEvents = enrichExceptionEvents(exceptionResult.get().getData());
+      full |= out.exceptionEvents.size() >= exceptionLimit;
+    }
+    batchScheduler.onPage(full, out.gpsRecords.isEmpty() && out.statusData.isEmpty()
+      && out.faultData.isEmpty() && out.trips.isEmpty() && out.exceptionEvents.isEmpty());
+    return out;
+  }
+
+  private FeedPage<LogRecord> loadLogRecords(int resultsLimit) {
+    String token = dataFeedParameters.lastGpsDataToken;
+    log.info("Getting LogRecord feed fromVersion {}", token);
+    var result = geotabApi.callGetFeed(Entities.LogRecordEntity, logRecordSearch(token), token, resultsLimit);
+    if (result.isEmpty()) return FeedPage.empty();
     dataFeedParameters.lastGpsDataToken = result.get().getToVersion();
+    return new FeedPage<>(enrichLogRecords(result.get().getData()), result.get().getToVersion());
+  }
 
-    return result.get().getData().stream().peek(logRecord -> {
-      // Populate relevant LogRecord fields.
-      if (logRecord.device != null && logRecord.device.getId() != null) {
-        logRecord.device = deviceCache.get(logRecord.device.getId().getId());
+  private FeedPage<StatusData> loadStatusData(String diagnosticId, int resultsLimit) {
+    String token = statusDataToken(diagnosticId);
+    log.info("Getting {} feed fromVersion {}", statusDataFeed(diagnosticId), token);
+    var result = geotabApi.callGetFeed(Entities.StatusDataEntity, statusDataSearch(diagnosticId, token), token,
+      resultsLimit);
+    if (result.isEmpty()) return FeedPage.empty();
+    setStatusDataToken(diagnosticId, result.get().getToVersion());
+    return new FeedPage<>(enrichStatusData(result.get().getData()), result.get().getToVersion());
+  }
+
+  private FeedPage<FaultData> loadFaultData(int resultsLimit) {
+    String token = dataFeedParameters.lastFaultDataToken;
+    log.info("Getting FaultData feed fromVersion {}", token);
+    var result = geotabApi.callGetFeed(Entities.FaultDataEntity, faultDataSearch(token), token, resultsLimit);
+    if (result.isEmpty()) return FeedPage.empty();
+    dataFeedParameters.lastFaultDataToken = result.get().getToVersion();
+    return new FeedPage<>(enrichFaultData(result.get().getData()), result.get().getToVersion());
+  }
+
+  private FeedPage<Trip> loadTrips(int resultsLimit) {
+    String token = dataFeedParameters.lastTripToken;
+    log.info("Getting Trips feed fromVersion {}", token);
+    var result = geotabApi.callGetFeed(Entities.TripEntity, tripSearch(token), token, resultsLimit);
+    if (result.isEmpty()) return FeedPage.empty();
+    dataFeedParameters.lastTripToken = result.get().getToVersion();
+    return new FeedPage<>(enrichTrips(result.get().getData()), result.get().getToVersion());
+  }
+
+  private FeedPage<ExceptionEvent> loadExceptionEvents(int resultsLimit) {
+    String token = dataFeedParameters.lastExceptionToken;
+    log.info("Getting ExceptionEvent feed fromVersion {}", token);
+    var result = geotabApi.callGetFeed(Entities.ExceptionEventEntity, exceptionEventSearch(token), token,
+      resultsLimit);
+    if (result.isEmpty()) return FeedPage.empty();
+    dataFeedParameters.lastExceptionToken = result.get().getToVersion();
+    return new FeedPage<>(enrichExceptionEvents(result.get().getData()), result.get().getToVersion());
+  }
+
+  /** The diagnostics to load StatusData for, one feed each; a single null entry means all of them. */
+  private List<String> statusDataDiagnostics() {
+    return dataFeedParameters.statusDataDiagnostics.isEmpty()
+      ? Collections.singletonList(null) : dataFeedParameters.statusDataDiagnostics;
+  }
+
+  private String statusDataToken(String diagnosticId) {
+    return diagnosticId == null
+      ? dataFeedParameters.lastStatusDataToken
+      : dataFeedParameters.lastDiagnosticStatusDataTokens.get(diagnosticId);
+  }
+
+  private void setStatusDataToken(String diagnosticId, String token) {
+    if (diagnosticId == null) {
+      dataFeedParameters.lastStatusDataToken = token;
+    } else {
+      dataFeedParameters.lastDiagnosticStatusDataTokens.put(diagnosticId, token);
+    }
+  }
+
+  private int resultsLimit(Integer feedResultsLimit) {
+    return Optional.ofNullable(feedResultsLimit)
+      .or(() -> Optional.ofNullable(dataFeedParameters.feedResultsLimit))
+      .orElse(FEED_RESULTS_LIMIT);
+  }
+
+  // A feed without a token seeks to fromDate, when one is configured.
+
+  private LogRecordSearch logRecordSearch(String token) {
+    if (token != null || dataFeedParameters.fromDate == null) return null;
+    return apply(new LogRecordSearch(), s -> s.fromDate = dataFeedParameters.fromDate);
+  }
+
+  private StatusDataSearch statusDataSearch(String diagnosticId, String token) {
+    boolean seek = token == null && dataFeedParameters.fromDate != null;
+    if (diagnosticId == null && !seek) return null;
+    return apply(new StatusDataSearch(), s -> {
+      if (diagnosticId != null) s.diagnosticSearch = apply(new DiagnosticSearch(), ds -> ds.setId(diagnosticId));
+      if (seek) s.fromDate = dataFeedParameters.fromDate;
+    });
+  }
+
+  private FaultDataSearch faultDataSearch(String token) {
+    if (token != null || dataFeedParameters.fromDate == null) return null;
+    return apply(new FaultDataSearch(), s -> s.fromDate = dataFeedParameters.fromDate);
+  }
+
+  private TripSearch tripSearch(String token) {
+    if (token != null || dataFeedParameters.fromDate == null) return null;
+    return apply(new TripSearch(), s -> s.fromDate = dataFeedParameters.fromDate);
+  }
+
+  private ExceptionEventSearch exceptionEventSearch(String token) {
+    if (token != null || dataFeedParameters.fromDate == null) return null;
+    return apply(new ExceptionEventSearch(), s -> s.fromDate = dataFeedParameters.fromDate);
+  }
+
+  // Records are enriched in place, so the page the SDK returned is the only copy held in memory.
+
+  /**
+   * Collect the ids a page references, so their cache misses are resolved in one request before
+   * the page is enriched record by record.
+   */
+  private static <R> Set<String> ids(List<R> records, Function<R, ? extends Entity> reference) {
+    Set<String> ids = new HashSet<>();
+    for (R item : records) {
+      Entity entity = reference.apply(item);
+      if (entity != null && entity.getId() != null) {
+        ids.add(entity.getId().getId());
       }
-    }).toList();
+    }
+    return ids;
+  }
+
+  /**
+   * Resolve a reference through its cache. While the lookup fails the cache answers {@code null},
+   * and the record keeps the id reference it came with.
+   */
+  private static <E extends Entity> E resolve(GeotabEntityCache<? extends E> cache, E reference) {
+    E cached = cache.get(reference.getId().getId());
+    return cached != null ? cached : reference;
   }
 
-  private List<StatusData> loadStatusData() {
-    log.info("Getting StatusData feed fromVersion {}", dataFeedParameters.lastStatusDataToken);
-    var result = geotabApi.callGetFeed(Entities.StatusDataEntity, null, dataFeedParameters.lastStatusDataToken, null);
-    if (result.isEmpty()) return Collections.emptyList();
-    dataFeedParameters.lastStatusDataToken = result.get().getToVersion();
+  private List<LogRecord> enrichLogRecords(List<LogRecord> logRecords) {
+    if (enriches(DEVICE)) deviceCache.getAll(ids(logRecords, r -> r.device));
+    for (LogRecord logRecord : logRecords) {
+      // Populate relevant LogRecord fields.
+      if (enriches(DEVICE) && logRecord.device != null && logRecord.device.getId() != null) {
+        logRecord.device = resolve(deviceCache, logRecord.device);
+      }
+    }
+    return logRecords;
+  }
 
-    return result.get().getData().stream().peek(data -> {
+  private List<StatusData> enrichStatusData(List<StatusData> statusData) {
+    if (enriches(DEVICE)) deviceCache.getAll(ids(statusData, d -> d.device));
+    if (enriches(DIAGNOSTIC)) diagnosticCache.getAll(ids(statusData, d -> d.diagnostic));
+    if (enriches(CONTROLLER)) controllerCache.getAll(ids(statusData, d -> d.controller));
+    for (StatusData data : statusData) {
       // Populate relevant StatusData fields.
-      if (data.device != null && data.device.getId() != null) {
-        data.device = deviceCache.get(data.device.getId().getId());
+      if (enriches(DEVICE) && data.device != null && data.device.getId() != null) {
+        data.device = resolve(deviceCache, data.device);
       }
-      if (data.diagnostic != null && data.diagnostic.getId() != null) {
-        data.diagnostic = diagnosticCache.get(data.diagnostic.getId().getId());
+      if (enriches(DIAGNOSTIC) && data.diagnostic != null && data.diagnostic.getId() != null) {
+        data.diagnostic = resolve(diagnosticCache, data.diagnostic);
       }
-      if (data.controller != null && data.controller.getId() != null) {
-        data.controller = controllerCache.get(data.controller.getId().getId());
+      if (enriches(CONTROLLER) && data.controller != null && data.controller.getId() != null) {
+        data.controller = resolve(controllerCache, data.controller);
       }
-    }).toList();
+    }
+    return statusData;
   }
 
-  private List<FaultData> loadFaultData() {
-    log.info("Getting FaultData feed fromVersion {}", dataFeedParameters.lastFaultDataToken);
-    var result = geotabApi.callGetFeed(Entities.FaultDataEntity, null, dataFeedParameters.lastFaultDataToken, null);
-    if (result.isEmpty()) return Collections.emptyList();
-    dataFeedParameters.lastFaultDataToken = result.get().getToVersion();
-
-    return result.get().getData().stream().peek(data -> {
+  private List<FaultData> enrichFaultData(List<FaultData> faultData) {
+    if (enriches(DEVICE)) deviceCache.getAll(ids(faultData, d -> d.device));
+    if (enriches(DIAGNOSTIC)) diagnosticCache.getAll(ids(faultData, d -> d.diagnostic));
+    if (enriches(CONTROLLER)) controllerCache.getAll(ids(faultData, d -> d.controller));
+    if (enriches(FAILURE_MODE)) failureModeCache.getAll(ids(faultData, d -> d.failureMode));
+    for (FaultData data : faultData) {
       // Populate relevant FaultData fields.
-      if (data.device != null && data.device.getId() != null) {
-        data.device = deviceCache.get(data.device.getId().getId());
+      if (enriches(DEVICE) && data.device != null && data.device.getId() != null) {
+        data.device = resolve(deviceCache, data.device);
       }
-      if (data.diagnostic != null && data.diagnostic.getId() != null) {
-        data.diagnostic = diagnosticCache.get(data.diagnostic.getId().getId());
+      if (enriches(DIAGNOSTIC) && data.diagnostic != null && data.diagnostic.getId() != null) {
+        data.diagnostic = resolve(diagnosticCache, data.diagnostic);
       }
-      if (data.controller != null && data.controller.getId() != null) {
-        data.controller = controllerCache.get(data.controller.getId().getId());
+      if (enriches(CONTROLLER) && data.controller != null && data.controller.getId() != null) {
+        data.controller = resolve(controllerCache, data.controller);
       }
-      if (data.failureMode != null && data.failureMode.getId() != null) {
-        data.failureMode = failureModeCache.get(data.failureMode.getId().getId());
+      if (enriches(FAILURE_MODE) && data.failureMode != null && data.failureMode.getId() != null) {
+        data.failureMode = resolve(failureModeCache, data.failureMode);
       }
-    }).toList();
+    }
+    return faultData;
   }
 
-  private List<Trip> loadTrips() {
-    log.info("Getting Trips feed fromVersion {}", dataFeedParameters.lastTripToken);
-    var result = geotabApi.callGetFeed(Entities.TripEntity, null, dataFeedParameters.lastTripToken, null);
-    if (result.isEmpty()) return Collections.emptyList();
-    dataFeedParameters.lastTripToken = result.get().getToVersion();
-
-    return result.get().getData().stream().peek(trip -> {
+  private List<Trip> enrichTrips(List<Trip> trips) {
+    if (enriches(DEVICE)) deviceCache.getAll(ids(trips, t -> t.device));
+    if (enriches(DRIVER)) userCache.getAll(ids(trips, t -> t.driver));
+    for (Trip trip : trips) {
       // Populate relevant Trip fields.
-      if (trip.device != null && trip.device.getId() != null) {
-        trip.device = deviceCache.get(trip.device.getId().getId());
+      if (enriches(DEVICE) && trip.device != null && trip.device.getId() != null) {
+        trip.device = resolve(deviceCache, trip.device);
       }
-      if (trip.driver != null && trip.driver.getId() != null) {
+      if (enriches(DRIVER) && trip.driver != null && trip.driver.getId() != null) {
         User cachedUser = userCache.get(trip.driver.getId().getId());
         if (cachedUser instanceof Driver d) {
           trip.driver = d;
@@ -188,6 +634,33 @@ public class DataFeedLoader {
         // SystemUser (e.g. UnknownDriver) is not a Driver subtype — keep the slim SystemDriver
         // reference that was already deserialized from the wire.
       }
-    }).toList();
+    }
+    return trips;
+  }
+
+  private List<ExceptionEvent> enrichExceptionEvents(List<ExceptionEvent> exceptionEvents) {
+    if (enriches(DEVICE)) deviceCache.getAll(ids(exceptionEvents, e -> e.device));
+    if (enriches(DIAGNOSTIC)) diagnosticCache.getAll(ids(exceptionEvents, e -> e.diagnostic));
+    if (enriches(RULE)) ruleCache.getAll(ids(exceptionEvents, e -> e.rule));
+    if (enriches(DRIVER)) userCache.getAll(ids(exceptionEvents, e -> e.driver));
+    for (ExceptionEvent exceptionEvent : exceptionEvents) {
+      // Populate relevant ExceptionEvent fields.
+      if (enriches(DEVICE) && exceptionEvent.device != null && exceptionEvent.device.getId() != null) {
+        exceptionEvent.device = resolve(deviceCache, exceptionEvent.device);
+      }
+      if (enriches(DIAGNOSTIC) && exceptionEvent.diagnostic != null && exceptionEvent.diagnostic.getId() != null) {
+        exceptionEvent.diagnostic = resolve(diagnosticCache, exceptionEvent.diagnostic);
+      }
+      if (enriches(RULE) && exceptionEvent.rule != null && exceptionEvent.rule.getId() != null) {
+        exceptionEvent.rule = resolve(ruleCache, exceptionEvent.rule);
+      }
+      if (enriches(DRIVER) && exceptionEvent.driver != null && exceptionEvent.driver.getId() != null) {
+        User cachedUser = userCache.get(exceptionEvent.driver.getId().getId());
+        if (cachedUser instanceof Driver d) {
+          exceptionEvent.driver = d;
+        }
+      }
+    }
+    return exceptionEvents;
   }
 }
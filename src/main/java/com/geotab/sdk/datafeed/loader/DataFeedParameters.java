@@ -4,11 +4,21 @@ import com.geotab.plain.objectmodel.LogRecord;
 import com.geotab.plain.objectmodel.Trip;
 import com.geotab.plain.objectmodel.engine.FaultData;
 import com.geotab.plain.objectmodel.engine.StatusData;
+import com.geotab.plain.objectmodel.exceptions.ExceptionEvent;
+import com.geotab.sdk.datafeed.cache.CachePolicy;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /** Contains latest data tokens. */
 public class DataFeedParameters {
 
-  /** The last ExceptionEvent token. */
+  /** The last {@link ExceptionEvent} token. */
   public String lastExceptionToken;
 
   /** The last {@link FaultData} token. */
@@ -22,4 +32,65 @@ public class DataFeedParameters {
 
   /** The last {@link Trip} token. */
   public String lastTripToken;
+
+  /** The last {@link StatusData} token of each diagnostic in {@link #statusDataDiagnostics}. */
+  public Map<String, String> lastDiagnosticStatusDataTokens = Collections.synchronizedMap(new HashMap<>());
+
+  /**
+   * Only load {@link StatusData} of these diagnostic ids, each as its own feed; empty to load the
+   * StatusData of all diagnostics.
+   */
+  public List<String> statusDataDiagnostics = new ArrayList<>();
+
+  /** Where a feed without a token starts from; null to start from its token. */
+  public Instant fromDate;
+
+  /**
+   * The maximum number of records per feed page, or null for the server maximum (50,000). Pages
+   * are held in memory from download until exported, so this bounds the heap used per batch. The
+   * page size actually requested shrinks below it while the server responds slowly.
+   */
+  public Integer feedResultsLimit;
+
+  /** The maximum number of {@link LogRecord} per page; null for {@link #feedResultsLimit}. */
+  public Integer gpsResultsLimit;
+
+  /** The maximum number of {@link StatusData} per page; null for {@link #feedResultsLimit}. */
+  public Integer statusDataResultsLimit;
+
+  /** The maximum number of {@link FaultData} per page; null for {@link #feedResultsLimit}. */
+  public Integer faultDataResultsLimit;
+
+  /** The maximum number of {@link Trip} per page; null for {@link #feedResultsLimit}. */
+  public Integer tripResultsLimit;
+
+  /** The maximum number of {@link ExceptionEvent} per page; null for {@link #feedResultsLimit}. */
+  public Integer exceptionResultsLimit;
+
+  /** Load all feeds in one multi-call per cycle instead of one independent pipeline per feed. */
+  public boolean batchFeeds;
+
+  /** How many loaded results may wait for the exporter before loading blocks. */
+  public int exportQueueDepth = 4;
+
+  /**
+   * Folder of entity cache snapshots, loaded at startup and saved after every full cache reload
+   * and on stop; null to always start with empty caches.
+   */
+  public Path cacheFolder;
+
+  /** Size and freshness limits of the device cache. */
+  public CachePolicy deviceCachePolicy = new CachePolicy();
+
+  /** Size and freshness limits of the user cache. */
+  public CachePolicy userCachePolicy = new CachePolicy();
+
+  /** Size and freshness limits of the diagnostic cache. */
+  public CachePolicy diagnosticCachePolicy = new CachePolicy();
+
+  /**
+   * The references replaced by their cached entities; the caches behind any other reference are
+   * neither loaded nor looked up. Set from {@link com.geotab.sdk.datafeed.exporter.Exporter#requires}.
+   */
+  public Set<Enrichment> enrichments = Enrichment.all();
 }
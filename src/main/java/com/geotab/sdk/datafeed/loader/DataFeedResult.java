@@ -4,18 +4,44 @@ import com.geotab.plain.objectmodel.LogRecord;
 import com.geotab.plain.objectmodel.Trip;
 import com.geotab.plain.objectmodel.engine.FaultData;
 import com.geotab.plain.objectmodel.engine.StatusData;
+import com.geotab.plain.objectmodel.exceptions.ExceptionEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /** The result of a Feed call. */
 public class DataFeedResult {
 
-  public List<LogRecord> gpsRecords;
+  public static final String GPS_FEED = "LogRecord";
+  public static final String STATUS_DATA_FEED = "StatusData";
+  public static final String FAULT_DATA_FEED = "FaultData";
+  public static final String TRIP_FEED = "Trip";
+  public static final String EXCEPTION_FEED = "ExceptionEvent";
 
-  public List<StatusData> statusData;
+  public List<LogRecord> gpsRecords = new ArrayList<>();
 
-  public List<FaultData> faultData;
+  public List<StatusData> statusData = new ArrayList<>();
 
-  public List<Trip> trips;
+  public List<FaultData> faultData = new ArrayList<>();
 
-  // TODO private List<ExceptionEvent> exceptionEvents;
+  public List<Trip> trips = new ArrayList<>();
+
+  public List<ExceptionEvent> exceptionEvents = new ArrayList<>();
+
+  /**
+   * The token to resume each loaded feed from once this result is exported, by feed name. Feeds
+   * that did not deliver a page in this result have no entry.
+   */
+  public Map<String, String> tokens = new LinkedHashMap<>();
+
+  /**
+   * Get the feed name of StatusData.
+   *
+   * @param diagnosticId The diagnostic the feed is filtered on, or null for all diagnostics.
+   * @return The feed name.
+   */
+  public static String statusDataFeed(String diagnosticId) {
+    return diagnosticId == null ? STATUS_DATA_FEED : STATUS_DATA_FEED + "/" + diagnosticId;
+  }
 }
@@ -0,0 +1,42 @@
+package com.geotab.sdk.datafeed.loader;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A reference of the feed records which the loader can replace by the cached entity it points to;
+ * records come from Geotab with references holding only an id.
+ */
+public enum Enrichment {
+
+  /** The {@code device} of every record. */
+  DEVICE,
+
+  /**
+   * The {@code diagnostic} of status data, fault data and exception events, linked to its
+   * controller and unit of measure.
+   */
+  DIAGNOSTIC,
+
+  /** The {@code controller} of status and fault data. */
+  CONTROLLER,
+
+  /** The {@code failureMode} of fault data. */
+  FAILURE_MODE,
+
+  /** The {@code driver} of trips and exception events. */
+  DRIVER,
+
+  /** The {@code rule} of exception events. */
+  RULE;
+
+  /** Every reference; what an exporter reading entity fields throughout needs. */
+  public static Set<Enrichment> all() {
+    return EnumSet.allOf(Enrichment.class);
+  }
+
+  /** No reference; what an exporter of raw ids needs, so records are passed on as they come. */
+  public static Set<Enrichment> none() {
+    return EnumSet.noneOf(Enrichment.class);
+  }
+}
@@ -0,0 +1,17 @@
+package com.geotab.sdk.datafeed.loader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a feed together with the token to resume from after it.
+ *
+ * @param data The (enriched) records of the page.
+ * @param toVersion The feed token following this page, or null if nothing was loaded.
+ */
+record FeedPage<T>(List<T> data, String toVersion) {
+
+  static <T> FeedPage<T> empty() {
+    return new FeedPage<>(new ArrayList<>(), null);
+  }
+}
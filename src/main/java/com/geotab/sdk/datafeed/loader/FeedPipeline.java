@@ -0,0 +1,84 @@
+package com.geotab.sdk.datafeed.loader;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.geotab.http.exception.DbUnavailableException;
+import com.geotab.http.exception.OverLimitException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single entity feed (LogRecord, StatusData…) run as its own pipeline. Each pipeline keeps at
+ * most one request in flight, so a slow feed never holds back the delivery of the others, and
+ * paces itself with its own {@link PollScheduler}, which also picks the page size to request.
+ */
+final class FeedPipeline<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(FeedPipeline.class);
+
+  private final String name;
+  private final IntFunction<FeedPage<T>> loader;
+  private final Executor executor;
+  private final PollScheduler scheduler;
+  private CompletableFuture<FeedPage<T>> inFlight;
+
+  FeedPipeline(String name, IntFunction<FeedPage<T>> loader, Executor executor, PollScheduler scheduler) {
+    this.name = name;
+    this.loader = loader;
+    this.executor = executor;
+    this.scheduler = scheduler;
+  }
+
+  /** Schedule loading the next page, unless the previous one is still in flight. */
+  void submitIfIdle() {
+    if (inFlight == null) {
+      long delay = scheduler.nextDelay().toMillis();
+      if (delay > 0) log.debug("{} feed: next poll in {} ms", name, delay);
+      inFlight = CompletableFuture.supplyAsync(this::loadSafely,
+        delay > 0 ? CompletableFuture.delayedExecutor(delay, MILLISECONDS, executor) : executor);
+    }
+  }
+
+  String name() {
+    return name;
+  }
+
+  CompletableFuture<FeedPage<T>> inFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Take the loaded page if the request completed.
+   *
+   * @return The loaded page, or an empty page while the request is still running.
+   */
+  FeedPage<T> poll() {
+    if (inFlight == null || !inFlight.isDone()) return FeedPage.empty();
+    FeedPage<T> out = inFlight.join();
+    inFlight = null;
+    return out;
+  }
+
+  private FeedPage<T> loadSafely() {
+    try {
+      long start = System.nanoTime();
+      FeedPage<T> out = loader.apply(scheduler.resultsLimit());
+      scheduler.onPage(out.data().size(), Duration.ofNanos(System.nanoTime() - start));
+      return out;
+    } catch (DbUnavailableException dbUnavailableException) {
+      log.error("{} feed: Db unavailable", name, dbUnavailableException);
+      scheduler.onDbUnavailable();
+    } catch (OverLimitException overLimitException) {
+      log.error("{} feed: OverLimitException ({}); backing off…", name, overLimitException.getMessage());
+      scheduler.onRateLimited();
+    } catch (Exception exception) {
+      log.error("Can not load {} feed", name, exception);
+      scheduler.onError();
+    }
+    return FeedPage.empty();
+  }
+}
@@ -0,0 +1,94 @@
+package com.geotab.sdk.datafeed.loader;
+
+import java.time.Duration;
+
+/**
+ * Decides when a feed is polled next and how large a page it asks for. A full page means more data
+ * is waiting, so the feed is polled again right away; empty pages back off exponentially;
+ * rate-limit and availability errors back off for at least as long as the server asks us to. Page
+ * size shrinks when responses are slow and grows back, up to the configured limit, when fast.
+ */
+final class PollScheduler {
+
+  static final Duration INITIAL_BACKOFF = Duration.ofSeconds(2);
+  static final Duration MAX_BACKOFF = Duration.ofMinutes(2);
+  static final Duration RATE_LIMIT_BACKOFF = Duration.ofMinutes(1);
+  static final Duration DB_UNAVAILABLE_BACKOFF = Duration.ofMinutes(5);
+  static final Duration SLOW_RESPONSE = Duration.ofSeconds(20);
+  static final Duration FAST_RESPONSE = Duration.ofSeconds(5);
+  static final int MIN_RESULTS_LIMIT = 1_000;
+
+  private final int maxResultsLimit;
+  private int resultsLimit;
+  private Duration backoff = INITIAL_BACKOFF;
+  private Duration nextDelay = Duration.ZERO;
+
+  PollScheduler(int maxResultsLimit) {
+    this.maxResultsLimit = maxResultsLimit;
+    this.resultsLimit = maxResultsLimit;
+  }
+
+  /**
+   * Record a loaded page and adapt the page size to the response time.
+   *
+   * @param size The number of records in the page.
+   * @param elapsed How long the page took to load.
+   */
+  synchronized void onPage(int size, Duration elapsed) {
+    boolean full = size >= resultsLimit;
+    if (elapsed.compareTo(SLOW_RESPONSE) > 0) {
+      resultsLimit = Math.max(Math.min(MIN_RESULTS_LIMIT, maxResultsLimit), resultsLimit / 2);
+    } else if (full && elapsed.compareTo(FAST_RESPONSE) < 0) {
+      resultsLimit = (int) Math.min(maxResultsLimit, resultsLimit * 2L);
+    }
+    onPage(full, size == 0);
+  }
+
+  /**
+   * Record a loaded page, without page size adaptation.
+   *
+   * @param full Whether the page reached its results limit.
+   * @param empty Whether the page had no records.
+   */
+  synchronized void onPage(boolean full, boolean empty) {
+    if (full) {
+      backoff = INITIAL_BACKOFF;
+      nextDelay = Duration.ZERO;
+    } else if (!empty) {
+      backoff = INITIAL_BACKOFF;
+      nextDelay = INITIAL_BACKOFF;
+    } else {
+      nextDelay = backoff;
+      backoff = min(backoff.multipliedBy(2), MAX_BACKOFF);
+    }
+  }
+
+  /** Record an OverLimitException: wait out the API quota window. */
+  synchronized void onRateLimited() {
+    nextDelay = backoff.compareTo(RATE_LIMIT_BACKOFF) > 0 ? backoff : RATE_LIMIT_BACKOFF;
+    backoff = min(backoff.multipliedBy(2), MAX_BACKOFF);
+  }
+
+  /** Record a DbUnavailableException. */
+  synchronized void onDbUnavailable() {
+    nextDelay = DB_UNAVAILABLE_BACKOFF;
+  }
+
+  /** Record any other failure. */
+  synchronized void onError() {
+    nextDelay = backoff;
+    backoff = min(backoff.multipliedBy(2), MAX_BACKOFF);
+  }
+
+  synchronized Duration nextDelay() {
+    return nextDelay;
+  }
+
+  synchronized int resultsLimit() {
+    return resultsLimit;
+  }
+
+  private static Duration min(Duration a, Duration b) {
+    return a.compareTo(b) < 0 ? a : b;
+  }
+}
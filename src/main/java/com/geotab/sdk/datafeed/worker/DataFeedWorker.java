@@ -1,9 +1,19 @@
 package com.geotab.sdk.datafeed.worker;
 
 import com.geotab.model.login.Credentials;
+import com.geotab.sdk.datafeed.checkpoint.CheckpointStore;
 import com.geotab.sdk.datafeed.exporter.Exporter;
 import com.geotab.sdk.datafeed.loader.DataFeedLoader;
 import com.geotab.sdk.datafeed.loader.DataFeedParameters;
+import com.geotab.sdk.datafeed.loader.DataFeedResult;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,42 +21,199 @@ import org.slf4j.LoggerFactory;
 public class DataFeedWorker extends Thread {
 
   private static final Logger log = LoggerFactory.getLogger(DataFeedWorker.class);
+  private static final int EXPORT_RETRY_SECONDS = 10;
+  private static final DataFeedResult END_OF_FEED = new DataFeedResult();
   private final AtomicBoolean isAlive = new AtomicBoolean(true);
   private final AtomicBoolean isProcessing = new AtomicBoolean(false);
+  /** Set once a background export failed; no later result is exported or checkpointed. */
+  private final AtomicBoolean exportFailed = new AtomicBoolean(false);
   private final DataFeedLoader loader;
   private final Exporter exporter;
+  private final CheckpointStore checkpoints;
+  private final BlockingQueue<DataFeedResult> exportQueue;
+  /** The checkpoint of the last result handed to the exporter, done once it and all before it are. */
+  private CompletableFuture<Void> committed = CompletableFuture.completedFuture(null);
 
   public DataFeedWorker(
     String server, Credentials credentials, DataFeedParameters params, Exporter exporter) {
-    this.loader = new DataFeedLoader(server, credentials, params);
+    this(server, credentials, params, exporter, null);
+  }
+
+  public DataFeedWorker(String server, Credentials credentials, DataFeedParameters params,
+    Exporter exporter, CheckpointStore checkpoints) {
+    this(server, credentials, params, exporter, checkpoints, null);
+  }
+
+  public DataFeedWorker(String server, Credentials credentials, DataFeedParameters params,
+    Exporter exporter, CheckpointStore checkpoints, Executor feedExecutor) {
+    super("data-feed-worker-" + credentials.getDatabase());
+    params.enrichments = exporter.requires();
+    this.loader = new DataFeedLoader(server, credentials, params, feedExecutor);
     this.exporter = exporter;
+    this.checkpoints = checkpoints;
+    this.exportQueue = new ArrayBlockingQueue<>(Math.max(1, params.exportQueueDepth));
   }
 
+  /**
+   * Loads on this thread and exports on a second one, with a bounded queue in between: fetching and
+   * writing overlap, and a full queue blocks the loader until the exporter catches up.
+   */
   @Override
   public void run() {
     log.debug("Running…");
 
+    Thread exporterThread = new Thread(this::exportQueued, getName() + "-exporter");
     try {
       isProcessing.set(true);
+      exporterThread.start();
 
       while (isAlive.get()) {
         try {
-          exporter.export(loader.load());
+          exportQueue.put(loader.load());
+        } catch (InterruptedException e) {
+          log.warn("Interrupted while queuing data feed", e);
+          break;
         } catch (Exception exception) {
           log.error("Worker exception while processing", exception);
         }
       }
 
+      drain(exporterThread);
     } finally {
       loader.stop();
+      closeExporter();
+      closeCheckpoints();
       isProcessing.set(false);
       log.debug("Processing stopped.");
     }
   }
 
+  private void exportQueued() {
+    boolean exporting = true;
+    int skipped = 0;
+    try {
+      while (true) {
+        DataFeedResult result = exportQueue.take();
+        if (result == END_OF_FEED) break;
+        // Once a result is given up on, checkpointing a later one would skip it: the rest of the
+        // queue is taken (so the loader never blocks on it) but neither exported nor checkpointed
+        if (exporting && !exportFailed.get()) {
+          exporting = exportAndCommit(result);
+        } else {
+          skipped++;
+        }
+      }
+      if (skipped > 0) {
+        log.warn("{} queued results not exported after a failed export; they will be reloaded on restart", skipped);
+      }
+    } catch (InterruptedException e) {
+      log.warn("Exporter interrupted; {} queued results not exported", exportQueue.size(), e);
+    }
+  }
+
+  /** Let the exporter finish everything already queued, then wait for it to stop. */
+  private void drain(Thread exporterThread) {
+    log.debug("Draining {} queued results…", exportQueue.size());
+    try {
+      exportQueue.put(END_OF_FEED);
+      exporterThread.join();
+    } catch (InterruptedException e) {
+      log.warn("Interrupted while draining export queue", e);
+      exporterThread.interrupt();
+    }
+  }
+
+  /**
+   * Export a result and only then checkpoint its tokens. A failed I/O export is retried with the
+   * same result, never skipped, so every record is delivered at least once; any other failure stops
+   * the worker. An exporter that completes
+   * in the background gets the next result meanwhile; checkpoints still follow the export order.
+   * If such an export fails, the worker stops without checkpointing it or any later result.
+   *
+   * @return Whether the result was exported; false once stopping, when it is given up on.
+   */
+  private boolean exportAndCommit(DataFeedResult result) throws InterruptedException {
+    // The checkpoint may wait long for a background export: it keeps the tokens, not the records
+    Map<String, String> tokens = new LinkedHashMap<>(result.tokens);
+    while (true) {
+      try {
+        CompletableFuture<Void> exported = exporter.exportAsync(result)
+          .whenComplete((ignored, failure) -> {
+            if (failure != null) failExport(failure);
+          });
+        // A failed export fails every later stage too: nothing is checkpointed past it
+        committed = committed.thenCombine(exported, (before, current) -> current).thenRun(() -> commit(tokens));
+        return true;
+      } catch (IOException | UncheckedIOException exception) {
+        if (!isAlive.get()) {
+          log.error("Can not export data feed; not checkpointed, it will be reloaded on restart", exception);
+          return false;
+        }
+        log.error("Can not export data feed; retrying in {} seconds…", EXPORT_RETRY_SECONDS, exception);
+        Thread.sleep(EXPORT_RETRY_SECONDS * 1000L);
+      } catch (Exception exception) {
+        // Not an I/O failure: exporting the same result again would fail the same way
+        failExport(exception);
+        return false;
+      }
+    }
+  }
+
+  private void failExport(Throwable failure) {
+    if (!exportFailed.compareAndSet(false, true)) return;
+    log.error("Can not export data feed; stopping, it is not checkpointed and will be reloaded on restart",
+      failure);
+    shutdown();
+  }
+
+  /**
+   * Checkpoint the tokens of an exported result, retrying until it is written or the worker stops. Giving up
+   * skips no record: a later checkpoint covers this result, or it is exported again on restart.
+   */
+  private void commit(Map<String, String> tokens) {
+    if (checkpoints == null) return;
+    while (true) {
+      try {
+        checkpoints.commit(tokens);
+        return;
+      } catch (IOException e) {
+        if (!isAlive.get()) {
+          log.error("Can not checkpoint data feed; unless a later checkpoint covers it, it is exported again"
+            + " on restart", e);
+          return;
+        }
+        log.error("Can not checkpoint data feed; retrying in {} seconds…", EXPORT_RETRY_SECONDS, e);
+        try {
+          Thread.sleep(EXPORT_RETRY_SECONDS * 1000L);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void closeExporter() {
+    try {
+      exporter.close();
+    } catch (Exception e) {
+      log.error("Can not close exporter", e);
+    }
+  }
+
+  private void closeCheckpoints() {
+    if (checkpoints == null) return;
+    try {
+      checkpoints.close();
+    } catch (IOException e) {
+      log.error("Can not close checkpoint store", e);
+    }
+  }
+
   public void shutdown() {
     log.debug("Signal to stop processing…");
     isAlive.set(false);
+    loader.stopWaiting();
   }
 
   public boolean isProcessing() {
@@ -14,12 +14,15 @@ import com.geotab.plain.objectmodel.DeviceSearch;
 import com.geotab.plain.objectmodel.LogRecord;
 import com.geotab.plain.objectmodel.LogRecordSearch;
 import com.geotab.plain.parameters.GetAddressesParameters;
+import com.geotab.sdk.ApiExecutor;
 import com.geotab.sdk.Util.Arg;
 import com.geotab.sdk.Util.Cmd;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 /**
@@ -38,7 +41,7 @@ public class GetLogsApp {
     var cmd = new Cmd(GetLogsApp.class, new Arg("serialNumber", false, "Serial number of the device"));
     var serialNumber = cmd.get("serialNumber");
 
-    try (Api api = cmd.newApi()) {
+    try (Api api = cmd.newApi(); ApiExecutor executor = cmd.newExecutor()) {
       // Get 10 devices or, if SN is available, only one device by serial number
       var deviceSearch = apply(new DeviceSearch(), s -> s.serialNumber = serialNumber);
       var devices = api.callGet(DeviceEntity, deviceSearch, 100).orElseThrow()
@@ -67,7 +70,8 @@ public class GetLogsApp {
         }
       }
 
-      // Print last week coordinates for each device
+      // Print last week coordinates for each device, looking the addresses up concurrently
+      var lookups = new ArrayList<CompletableFuture<Void>>();
       for (var entry : result.entrySet()) {
         if (entry.getValue().get().isEmpty()) continue;
         var lastLog = entry.getValue().get().getLast();
@@ -76,11 +80,15 @@ public class GetLogsApp {
           c.x = lastLog.longitude;
         });
         var parameters = apply(new GetAddressesParameters(), p -> p.coordinates = List.of(coordinate));
-        var addresses = api.call(WebMethods.GetAddresses, parameters);
-        var address = addresses.flatMap(o -> o.stream().findFirst()).orElseThrow();
-        out.format("📌Address for %s [date=%s, lat=%s, lon=%s]: %s%n", entry.getKey().getId(), lastLog.dateTime,
-          lastLog.latitude, lastLog.longitude, address.formattedAddress);
+        lookups.add(executor.submit(() -> {
+          var addresses = api.call(WebMethods.GetAddresses, parameters);
+          var address = addresses.flatMap(o -> o.stream().findFirst()).orElseThrow();
+          out.format("📌Address for %s [date=%s, lat=%s, lon=%s]: %s%n", entry.getKey().getId(), lastLog.dateTime,
+            lastLog.latitude, lastLog.longitude, address.formattedAddress);
+          return null;
+        }));
       }
+      ApiExecutor.joinAll(lookups);
     }
   }
 }
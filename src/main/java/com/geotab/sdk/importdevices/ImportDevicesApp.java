@@ -16,6 +16,7 @@ import com.geotab.plain.objectmodel.Group;
 import com.geotab.plain.objectmodel.User;
 import com.geotab.plain.objectmodel.UserSearch;
 import com.geotab.plain.objectmodel.WorkTime;
+import com.geotab.sdk.ApiExecutor;
 import com.geotab.sdk.Util.Arg;
 import com.geotab.sdk.Util.Cmd;
 import java.nio.file.Files;
@@ -23,6 +24,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -41,7 +43,7 @@ public class ImportDevicesApp {
     List<CsvDeviceEntry> deviceEntries = loadDevicesFromCsv(filePath);
 
     // Create the Geotab API object used to make calls to the server
-    try (Api api = cmd.newApi()) {
+    try (Api api = cmd.newApi(); ApiExecutor executor = cmd.newExecutor()) {
 
       // Authenticate user
       authenticate(api);
@@ -50,7 +52,7 @@ public class ImportDevicesApp {
       User apiUser = getApiUser(api, cmd.credentials.getUserName());
 
       // Start import
-      importDevices(api, apiUser, deviceEntries);
+      importDevices(api, executor, apiUser, deviceEntries);
     }
   }
 
@@ -125,12 +127,16 @@ public class ImportDevicesApp {
     return apiUser;
   }
 
-  private static void importDevices(Api api, User apiUser, List<CsvDeviceEntry> deviceEntries) {
+  private static void importDevices(
+    Api api, ApiExecutor executor, User apiUser, List<CsvDeviceEntry> deviceEntries) {
     log.debug("Start importing devices…");
 
     try {
-      List<Device> existingDevices = getExistingDevices(api);
-      List<Group> existingGroups = getExistingGroups(api);
+      var devicesCall = executor.submit(() -> getExistingDevices(api));
+      var groupsCall = executor.submit(() -> getExistingGroups(api));
+      List<Device> existingDevices = devicesCall.join();
+      List<Group> existingGroups = groupsCall.join();
+      List<CompletableFuture<Void>> adds = new ArrayList<>();
 
       // We only want to be able to assign Org Group if the API user has this in their scope.
       boolean hasOrgGroupScope =
@@ -187,32 +193,36 @@ public class ImportDevicesApp {
           continue;
         }
 
-        try {
-          // Create the device object.
-          Device newDevice =
-            apply(
-              new Device(),
-              d -> {
-                d.setName(deviceEntry.description);
-                d.serialNumber = cleanSerial;
-                d.groups = deviceGroups;
-                d.workTime = WorkTime.fromString("WorkTimeStandardHoursId");
-              });
-
-          // Add the device
-          Optional<Id> response = api.callAdd(DeviceEntity, newDevice);
-
-          if (response.isPresent()) {
-            log.info("Device {} added with id {} .", deviceEntry.description, response.get().getId());
-          } else {
-            log.warn("Device {} not added; no id returned", deviceEntry.description);
+        // Create the device object.
+        Device newDevice =
+          apply(
+            new Device(),
+            d -> {
+              d.setName(deviceEntry.description);
+              d.serialNumber = cleanSerial;
+              d.groups = deviceGroups;
+              d.workTime = WorkTime.fromString("WorkTimeStandardHoursId");
+            });
+
+        // Add the device; devices are independent of each other, so adds run concurrently
+        adds.add(executor.submit(() -> {
+          try {
+            Optional<Id> response = api.callAdd(DeviceEntity, newDevice);
+
+            if (response.isPresent()) {
+              log.info("Device {} added with id {} .", deviceEntry.description, response.get().getId());
+            } else {
+              log.warn("Device {} not added; no id returned", deviceEntry.description);
+            }
+          } catch (Exception exception) {
+            // Catch and display any error that occur when adding the device
+            log.error("Failed to import device {}", deviceEntry.description, exception);
           }
-        } catch (Exception exception) {
-          // Catch and display any error that occur when adding the device
-          log.error("Failed to import device {}", deviceEntry.description, exception);
-        }
+          return null;
+        }));
       }
 
+      ApiExecutor.joinAll(adds);
       log.info("Devices imported.");
     } catch (Exception exception) {
       log.error("Failed to get import devices", exception);
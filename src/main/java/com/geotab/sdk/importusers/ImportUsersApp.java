@@ -13,6 +13,7 @@ import com.geotab.plain.objectmodel.Group;
 import com.geotab.plain.objectmodel.GroupSearch;
 import com.geotab.plain.objectmodel.User;
 import com.geotab.plain.objectmodel.UserAuthenticationType;
+import com.geotab.sdk.ApiExecutor;
 import com.geotab.sdk.Util.Arg;
 import com.geotab.sdk.Util.Cmd;
 import java.nio.file.Files;
@@ -21,6 +22,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -39,13 +41,13 @@ public class ImportUsersApp {
     List<UserDetails> userEntries = loadUsersFromCsv(filePath);
 
     // Create the Geotab API object used to make calls to the server
-    try (Api api = cmd.newApi()) {
+    try (Api api = cmd.newApi(); ApiExecutor executor = cmd.newExecutor()) {
 
       // Authenticate user
       authenticate(api);
 
       // Start import
-      importUsers(api, userEntries);
+      importUsers(api, executor, userEntries);
     }
   }
 
@@ -124,14 +126,18 @@ public class ImportUsersApp {
     return loginResult;
   }
 
-  private static void importUsers(Api api, List<UserDetails> userEntries) {
+  private static void importUsers(Api api, ApiExecutor executor, List<UserDetails> userEntries) {
     log.debug("Start importing users…");
 
     try {
 
-      List<User> existingUsers = getExistingUsers(api);
-      List<Group> existingGroups = getExistingGroups(api);
-      List<Group> securityGroups = getSecurityGroups(api);
+      var usersCall = executor.submit(() -> getExistingUsers(api));
+      var groupsCall = executor.submit(() -> getExistingGroups(api));
+      var securityGroupsCall = executor.submit(() -> getSecurityGroups(api));
+      List<User> existingUsers = usersCall.join();
+      List<Group> existingGroups = groupsCall.join();
+      List<Group> securityGroups = securityGroupsCall.join();
+      List<CompletableFuture<Void>> adds = new ArrayList<>();
 
       for (UserDetails userDetails : userEntries) {
         // Add groups to user
@@ -139,24 +145,29 @@ public class ImportUsersApp {
         user.companyGroups = getOrganizationGroups(userDetails.organizationNodeNames.split("\\|"), existingGroups);
         user.securityGroups = filterSecurityGroupsByName(userDetails.securityNodeName, securityGroups);
         if (isUserValid(user, existingUsers)) {
-          try {
-            // Add the user
-            Optional<Id> response = api.callAdd(UserEntity, user);
-
-            if (response.isPresent()) {
-              log.info("User {} added with id {}", user.getName(), response.get().getId());
-              user.setId(new Id(response.get().getId()));
-              existingUsers.add(user);
-            } else {
-              log.warn("User {} not added; no id returned", user.getName());
+          // Claim the name now, so a duplicate row later in the file is rejected while this add runs
+          existingUsers.add(user);
+          adds.add(executor.submit(() -> {
+            try {
+              // Add the user
+              Optional<Id> response = api.callAdd(UserEntity, user);
+
+              if (response.isPresent()) {
+                log.info("User {} added with id {}", user.getName(), response.get().getId());
+                user.setId(new Id(response.get().getId()));
+              } else {
+                log.warn("User {} not added; no id returned", user.getName());
+              }
+            } catch (Exception exception) {
+              // Catch and display any error that occur when adding the user
+              log.error("Failed to import user {}", user.getName(), exception);
             }
-          } catch (Exception exception) {
-            // Catch and display any error that occur when adding the user
-            log.error("Failed to import user {}", user.getName(), exception);
-          }
+            return null;
+          }));
         }
       }
 
+      ApiExecutor.joinAll(adds);
       log.info("Users imported.");
     } catch (Exception exception) {
       log.error("Failed to get import users", exception);
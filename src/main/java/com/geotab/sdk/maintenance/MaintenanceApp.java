@@ -12,6 +12,7 @@ import com.geotab.plain.objectmodel.maintenance.MaintenanceWorkOrderJobSearch;
 import com.geotab.plain.objectmodel.maintenance.MaintenanceWorkOrderSearch;
 import com.geotab.plain.objectmodel.maintenance.MaintenanceWorkRequest;
 import com.geotab.plain.objectmodel.maintenance.MaintenanceWorkRequestSearch;
+import com.geotab.sdk.ApiExecutor;
 import com.geotab.sdk.Util.Cmd;
 import java.util.List;
 
@@ -20,12 +21,21 @@ public class MaintenanceApp {
   public static void main(String[] args) throws Exception {
     var cmd = new Cmd(MaintenanceApp.class);
 
-    try (Api api = cmd.newApi()) {
+    try (Api api = cmd.newApi(); ApiExecutor executor = cmd.newExecutor()) {
 
       // Maintenance requests (potential work orders) with High or Critical severity
-      var requests = api.callGet(MaintenanceWorkRequestEntity, apply(new MaintenanceWorkRequestSearch(), s -> {
-        s.severities = List.of(MaintenanceSeverity.Critical, MaintenanceSeverity.High);
-      }), 100).orElseThrow();
+      var requestsCall = executor.submit(() -> api.callGet(MaintenanceWorkRequestEntity,
+        apply(new MaintenanceWorkRequestSearch(), s -> {
+          s.severities = List.of(MaintenanceSeverity.Critical, MaintenanceSeverity.High);
+        }), 100).orElseThrow());
+
+      // Pending maintenance orders
+      var ordersCall = executor.submit(() -> api.callGet(MaintenanceWorkOrderEntity,
+        apply(new MaintenanceWorkOrderSearch(), s -> {
+          s.statuses = List.of(1); // 1 = Open/Pending
+        }), 10).orElseThrow());
+
+      var requests = requestsCall.join();
 
       for (MaintenanceWorkRequest request : requests) {
         out.format("🛠️MaintenanceWorkRequest [id=%s, severity=%s, dueOnDate=%s, type=%s, device=%s]%n",
@@ -35,19 +45,22 @@ public class MaintenanceApp {
       }
       out.println();
 
-      // Pending maintenance orders
-      var orders = api.callGet(MaintenanceWorkOrderEntity, apply(new MaintenanceWorkOrderSearch(), s -> {
-        s.statuses = List.of(1); // 1 = Open/Pending
-      }), 10).orElseThrow();
-      for (var order : orders) {
+      // Jobs of every order, fetched concurrently and printed in order
+      var orders = ordersCall.join();
+      var jobsCalls = orders.stream()
+        .map(order -> executor.submit(() -> api.callGet(MaintenanceWorkOrderJobEntity,
+          apply(new MaintenanceWorkOrderJobSearch(), s -> {
+            s.workOrderId = order.getId().getId();
+          }), 100).orElseThrow()))
+        .toList();
+      var ordersJobs = ApiExecutor.joinAll(jobsCalls);
+      for (int i = 0; i < orders.size(); i++) {
+        var order = orders.get(i);
         out.format("📝MaintenanceWorkOrder [id=%s, status=%s, reference=%s, device=%s]%n",
             order.getId(), order.statusCodeDisplay + "(" + order.statusCode + ")", order.reference,
             order.device.getName() + "(" + order.device.getId().getId() + ")");
 
-        var jobs = api.callGet(MaintenanceWorkOrderJobEntity, apply(new MaintenanceWorkOrderJobSearch(), s -> {
-          s.workOrderId = order.getId().getId();
-        }), 100).orElseThrow();
-        for (var job : jobs) {
+        for (var job : ordersJobs.get(i)) {
           var typeInfo = job.maintenanceType.getName() + "(" + job.maintenanceType.source + ")";
           out.format("   🔧Job [id=%s, type=%s, closed=%s, date=%s]%n",
               job.getId(), typeInfo, job.isClosed, job.dateTime);
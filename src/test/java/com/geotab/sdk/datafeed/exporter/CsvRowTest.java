@@ -0,0 +1,90 @@
+package com.geotab.sdk.datafeed.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/** {@link CsvRow} must write exactly the lines the exporter wrote before it, field for field. */
+class CsvRowTest {
+
+  /** Quotes, commas, newlines and a non-ASCII char, so every escaping path is taken. */
+  private static final String ALPHABET = "ab,\"é x\n";
+
+  @Test
+  void escapesLikeBaseline() {
+    CsvRow row = new CsvRow();
+    assertEquals("", row.clear().toString());
+    assertEquals("a,,\"say \"\"hi\"\"\"", row.clear().add("a").add((Object) null).add("say \"hi\"").toString());
+    assertEquals("a b,\"a \"\" b\",x\ny", row.clear().addName("a,b").addName("a,\" b").add("x\ny").toString());
+    assertEquals("1.5,true,", row.clear().add((Object) 1.5).add((Object) true).add((String) null).toString());
+  }
+
+  @Test
+  void growsPastItsBuffer() {
+    CsvRow row = new CsvRow();
+    String quotes = "\"".repeat(5_000);
+    String commas = ",".repeat(5_000);
+    assertEquals(baseline(List.of(quotes, commas), List.of(false, true)),
+      row.clear().add(quotes).addName(commas).toString());
+  }
+
+  @Test
+  void matchesBaselineOnRandomRows() throws Exception {
+    Random random = new Random(42);
+    CsvRow row = new CsvRow();
+    for (int n = 0; n < 200_000; n++) {
+      List<String> values = new ArrayList<>();
+      List<Boolean> names = new ArrayList<>();
+      row.clear();
+      for (int f = random.nextInt(12); f >= 0; f--) {
+        // Every thousandth row has fields long enough to grow the buffer
+        int maxLength = n % 1_000 == 0 ? 2_000 : 40;
+        String value = random.nextInt(10) == 0 ? null : randomString(random, random.nextInt(maxLength));
+        boolean name = value != null && random.nextBoolean();
+        values.add(value);
+        names.add(name);
+        if (name) {
+          row.addName(value);
+        } else if (random.nextBoolean()) {
+          row.add(value);
+        } else {
+          row.add((Object) value);
+        }
+      }
+
+      String expected = baseline(values, names);
+      assertEquals(expected, row.toString(), () -> "Row of " + values);
+      StringWriter written = new StringWriter();
+      row.writeTo(written);
+      assertEquals(expected, written.toString());
+    }
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder out = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      out.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return out.toString();
+  }
+
+  /** The encoding {@link CsvExporter} used before {@link CsvRow}. */
+  private static String baseline(List<String> values, List<Boolean> names) {
+    List<String> fields = new ArrayList<>();
+    for (int i = 0; i < values.size(); i++) {
+      String value = Objects.toString(values.get(i), "");
+      fields.add(escapeCsv(names.get(i) ? value.replace(",", " ") : value));
+    }
+    return String.join(",", fields);
+  }
+
+  private static String escapeCsv(final String input) {
+    final String Q = String.valueOf('"');
+    return !input.contains(Q) ? input : Q + input.replaceAll(Q, Q + Q) + Q;
+  }
+}